@@ -0,0 +1,78 @@
+-- Before/after comparison of the version_hit column types (see db/schema.sql migration).
+--
+--   psql -X -d <scratch database> -f db/bench/version_hit_types.sql
+--
+-- Builds the original layout (legacy_hit) and the native layout (native_hit) in a throwaway
+-- schema, both with the same covering and BRIN indexes, inserts the same rows into each with
+-- \timing on, then reports average tuple size, heap size and index size. Insert time includes
+-- index maintenance.
+-- Drops the schema at the end.
+
+\set rows 1000000
+\timing on
+
+DROP SCHEMA IF EXISTS hellowar_bench CASCADE;
+CREATE SCHEMA hellowar_bench;
+SET search_path = hellowar_bench;
+
+CREATE TABLE legacy_hit (
+  id BIGSERIAL PRIMARY KEY,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  version INT NOT NULL,
+  app_version VARCHAR(128) DEFAULT '',
+  release_number INT NOT NULL,
+  request_id VARCHAR(64) DEFAULT '',
+  user_agent TEXT DEFAULT ''
+);
+
+CREATE TABLE native_hit (
+  id BIGSERIAL PRIMARY KEY,
+  created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+  request_id UUID,
+  release_number INT NOT NULL,
+  version SMALLINT NOT NULL,
+  app_version VARCHAR(128) DEFAULT '',
+  user_agent TEXT DEFAULT ''
+);
+CREATE INDEX ON native_hit (version, release_number, created_at) INCLUDE (app_version);
+CREATE INDEX ON native_hit USING BRIN (created_at);
+
+-- same data for both tables; request ids are real UUIDs as produced by ApiUtil.newRequestId()
+CREATE TEMP TABLE src AS
+SELECT now() - (g * interval '100 ms') AS created_at,
+       1 + g % 5 AS version,
+       '1.0.0-SNAPSHOT'::text AS app_version,
+       1 + g % 3 AS release_number,
+       md5(g::text)::uuid AS request_id,
+       'Mozilla/5.0 (X11; Linux x86_64)'::text AS user_agent
+FROM generate_series(1, :rows) g;
+
+-- legacy layout with the same covering and BRIN indexes, for a like-for-like insert cost
+CREATE INDEX ON legacy_hit (version, release_number, created_at) INCLUDE (app_version);
+CREATE INDEX ON legacy_hit USING BRIN (created_at);
+
+\echo 'insert: legacy layout'
+INSERT INTO legacy_hit (created_at, version, app_version, release_number, request_id, user_agent)
+SELECT created_at, version, app_version, release_number, request_id::text, user_agent FROM src;
+
+\echo 'insert: native layout'
+INSERT INTO native_hit (created_at, version, app_version, release_number, request_id, user_agent)
+SELECT created_at, version, app_version, release_number, request_id, user_agent FROM src;
+
+VACUUM ANALYZE legacy_hit;
+VACUUM ANALYZE native_hit;
+
+\timing off
+
+SELECT 'legacy_hit' AS layout,
+       (SELECT round(avg(pg_column_size(t.*)), 1) FROM legacy_hit t) AS avg_tuple_bytes,
+       pg_size_pretty(pg_relation_size('legacy_hit')) AS heap,
+       pg_size_pretty(pg_indexes_size('legacy_hit')) AS indexes
+UNION ALL
+SELECT 'native_hit',
+       (SELECT round(avg(pg_column_size(t.*)), 1) FROM native_hit t),
+       pg_size_pretty(pg_relation_size('native_hit')),
+       pg_size_pretty(pg_indexes_size('native_hit'));
+
+RESET search_path;
+DROP SCHEMA hellowar_bench CASCADE;
@@ -1,22 +1,144 @@
--- HelloWar telemetry schema (PostgreSQL)
--- Safe to apply multiple times.
+-- HelloWar telemetry schema (PostgreSQL 12+)
+-- Safe to apply multiple times. Existing installs are migrated in place by the DO block below.
 
 CREATE TABLE IF NOT EXISTS version_hit (
   id BIGSERIAL PRIMARY KEY,
-  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-  version INT NOT NULL,
-  app_version VARCHAR(128) DEFAULT '',
+  created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+  request_id UUID,
   release_number INT NOT NULL,
-  request_id VARCHAR(64) DEFAULT '',
+  version SMALLINT NOT NULL,
+  app_version VARCHAR(128) DEFAULT '',
   user_agent TEXT DEFAULT ''
 );
 
 -- Legacy table used by /hello logging (kept for backward compatibility).
 CREATE TABLE IF NOT EXISTS request_log (
   id BIGSERIAL PRIMARY KEY,
-  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
   path VARCHAR(255),
   remote_addr VARCHAR(64),
   app_env VARCHAR(64),
   message TEXT
 );
+
+-- Per-node HyperLogLog sketches of distinct clients / user agents per endpoint and window.
+-- Written by the webapp (HLL_FLUSH_SECONDS); merged across nodes and windows by /api/unique.
+-- Old windows can be pruned freely; they are only needed for history.
+CREATE TABLE IF NOT EXISTS hll_sketch (
+  endpoint VARCHAR(64) NOT NULL,
+  dimension VARCHAR(32) NOT NULL,
+  granularity VARCHAR(8) NOT NULL,   -- 'minute' | 'hour'
+  window_start TIMESTAMPTZ NOT NULL,
+  node_id VARCHAR(128) NOT NULL,
+  precision SMALLINT NOT NULL,
+  registers BYTEA NOT NULL,
+  updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (endpoint, dimension, granularity, window_start, node_id)
+);
+
+-- One row per Tomcat node, upserted every HEARTBEAT_SECONDS (routed to a shard by node_id).
+-- GET /api/cluster serves a cached read of all shards: which release runs where, and node load.
+CREATE TABLE IF NOT EXISTS node_heartbeat (
+  node_id VARCHAR(128) PRIMARY KEY,
+  app_version VARCHAR(64) NOT NULL,
+  release_number INT NOT NULL,
+  health VARCHAR(16) NOT NULL,       -- 'UP' | 'DEGRADED' (requests shed since the last beat)
+  in_flight INT NOT NULL,
+  concurrency_limit INT NOT NULL,
+  requests_total BIGINT NOT NULL,
+  requests_shed BIGINT NOT NULL,
+  load_average DOUBLE PRECISION,     -- NULL where the OS does not report one
+  started_at TIMESTAMPTZ NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Incremental rollups of version_hit, maintained by the webapp (ROLLUP_INTERVAL_SECONDS).
+-- rollup_watermark.last_id is the highest version_hit.id already folded into both rollup tables;
+-- it is advanced in the same transaction as the rollup upserts, so restarts never double count.
+-- Each shard holds the rollups and watermark for its own version_hit rows.
+-- Buckets are truncated in UTC.
+CREATE TABLE IF NOT EXISTS version_hit_rollup_minute (
+  bucket_start TIMESTAMPTZ NOT NULL,
+  version SMALLINT NOT NULL,
+  release_number INT NOT NULL,
+  hits BIGINT NOT NULL,
+  PRIMARY KEY (bucket_start, version, release_number)
+);
+
+CREATE TABLE IF NOT EXISTS version_hit_rollup_hour (
+  bucket_start TIMESTAMPTZ NOT NULL,
+  version SMALLINT NOT NULL,
+  release_number INT NOT NULL,
+  hits BIGINT NOT NULL,
+  PRIMARY KEY (bucket_start, version, release_number)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermark (
+  name VARCHAR(64) PRIMARY KEY,
+  last_id BIGINT NOT NULL,
+  updated_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO rollup_watermark (name, last_id) VALUES ('version_hit', 0) ON CONFLICT (name) DO NOTHING;
+
+-- Migration from the original string/zone-less column types.
+--  - request_id VARCHAR(64) holding a UUID string -> UUID (16 bytes instead of 37); values that
+--    are not UUIDs (including the old '' default) become NULL.
+--  - created_at TIMESTAMP -> TIMESTAMPTZ, interpreting old values in the server's TimeZone
+--    (CURRENT_TIMESTAMP wrote them in that zone), so the instants do not shift.
+--  - version INT -> SMALLINT. release_number stays INT: CI run numbers can exceed 32767.
+--  - hll_sketch.window_start was written as UTC wall-clock time and is converted as UTC.
+--  - rollup buckets were truncated in the server's TimeZone, so they do not line up with the
+--    UTC buckets written now (and cannot be remapped where the offset is not a whole hour).
+--    Both rollup tables are emptied and the watermark reset; the roller rebuilds them from
+--    version_hit.
+-- Each ALTER rewrites its table; run during a quiet period on large installs.
+DO $$
+BEGIN
+  IF (SELECT data_type FROM information_schema.columns
+      WHERE table_schema = current_schema() AND table_name = 'version_hit' AND column_name = 'request_id') <> 'uuid' THEN
+    ALTER TABLE version_hit
+      ALTER COLUMN request_id DROP DEFAULT,
+      ALTER COLUMN request_id TYPE UUID USING
+        CASE WHEN request_id ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+             THEN request_id::uuid END,
+      ALTER COLUMN created_at TYPE TIMESTAMPTZ USING created_at AT TIME ZONE current_setting('TimeZone'),
+      ALTER COLUMN version TYPE SMALLINT;
+  END IF;
+
+  IF (SELECT data_type FROM information_schema.columns
+      WHERE table_schema = current_schema() AND table_name = 'request_log' AND column_name = 'created_at') <> 'timestamp with time zone' THEN
+    ALTER TABLE request_log
+      ALTER COLUMN created_at TYPE TIMESTAMPTZ USING created_at AT TIME ZONE current_setting('TimeZone');
+  END IF;
+
+  IF (SELECT data_type FROM information_schema.columns
+      WHERE table_schema = current_schema() AND table_name = 'hll_sketch' AND column_name = 'window_start') <> 'timestamp with time zone' THEN
+    ALTER TABLE hll_sketch
+      ALTER COLUMN window_start TYPE TIMESTAMPTZ USING window_start AT TIME ZONE 'UTC',
+      ALTER COLUMN updated_at TYPE TIMESTAMPTZ USING updated_at AT TIME ZONE current_setting('TimeZone');
+  END IF;
+
+  IF (SELECT data_type FROM information_schema.columns
+      WHERE table_schema = current_schema() AND table_name = 'version_hit_rollup_minute' AND column_name = 'bucket_start') <> 'timestamp with time zone' THEN
+    TRUNCATE version_hit_rollup_minute, version_hit_rollup_hour;
+    ALTER TABLE version_hit_rollup_minute
+      ALTER COLUMN bucket_start TYPE TIMESTAMPTZ,
+      ALTER COLUMN version TYPE SMALLINT;
+    ALTER TABLE version_hit_rollup_hour
+      ALTER COLUMN bucket_start TYPE TIMESTAMPTZ,
+      ALTER COLUMN version TYPE SMALLINT;
+    UPDATE rollup_watermark SET last_id = 0 WHERE name = 'version_hit';
+    ALTER TABLE rollup_watermark
+      ALTER COLUMN updated_at TYPE TIMESTAMPTZ USING updated_at AT TIME ZONE current_setting('TimeZone');
+  END IF;
+END $$;
+
+-- Covering index for the dashboard access path (per version and release over time):
+-- counts by (version, release_number, created_at) are answered by index-only scans.
+CREATE INDEX IF NOT EXISTS version_hit_version_release_created_idx
+  ON version_hit (version, release_number, created_at) INCLUDE (app_version);
+
+-- Append-only tables: BRIN indexes give time-range pruning for a few pages of index.
+CREATE INDEX IF NOT EXISTS version_hit_created_at_brin ON version_hit USING BRIN (created_at);
+CREATE INDEX IF NOT EXISTS request_log_created_at_brin ON request_log USING BRIN (created_at);
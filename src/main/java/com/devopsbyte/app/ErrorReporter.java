@@ -0,0 +1,329 @@
+package com.devopsbyte.app;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Asynchronous, deduplicating error log for code on the request path.
+ *
+ * report() and warn() only enqueue onto a bounded lock-free queue; when the queue is full the
+ * event is counted as dropped. A single daemon thread drains the queue and groups events by
+ * (source, context, exception type). Messages vary (shard names, ids, driver text), so they are
+ * not part of the key; a group shows its latest message. Contexts must be fixed strings, with
+ * variable detail passed as the message:
+ *  - the first occurrence of a group is written with its stack trace;
+ *  - later occurrences are counted and summarised at most once per interval (10s), as
+ *    "N occurrences in last 10s".
+ *
+ * Groups not seen for GROUP_IDLE_MILLIS (10 min) are evicted on the drain tick, and when
+ * MAX_GROUPS is reached the least recently seen group with nothing pending makes room, so a new
+ * kind of error is always printed; only when every group has a pending summary do events go to
+ * an "other errors" group.
+ *
+ * So a DB outage hitting every request produces one stack trace and one line per 10s per
+ * distinct failure, and request threads never wait on the stderr lock. Per-group counters are
+ * available from counts() for diagnostics.
+ */
+public final class ErrorReporter {
+
+    static final int QUEUE_CAPACITY = 1024;
+    static final int MAX_GROUPS = 256;
+    static final long DEFAULT_INTERVAL_MILLIS = 10_000L;
+    static final long GROUP_IDLE_MILLIS = 10 * 60_000L;
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    private static final int MAX_MESSAGE_LENGTH = 200;
+
+    private static final ErrorReporter INSTANCE =
+            new ErrorReporter(System.err, DEFAULT_INTERVAL_MILLIS, System::currentTimeMillis);
+
+    /** Counters for one group of identical errors. */
+    public static final class ErrorCount {
+        private final String source;
+        private final String context;
+        private final String type;
+        private final String message;
+        private final long total;
+        private final long lastSeenMillis;
+
+        ErrorCount(String source, String context, String type, String message, long total, long lastSeenMillis) {
+            this.source = source;
+            this.context = context;
+            this.type = type;
+            this.message = message;
+            this.total = total;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getContext() {
+            return context;
+        }
+
+        /** Simple name of the exception class, or null for reports without one. */
+        public String getType() {
+            return type;
+        }
+
+        /** Message of the group's latest occurrence. */
+        public String getMessage() {
+            return message;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getLastSeenMillis() {
+            return lastSeenMillis;
+        }
+    }
+
+    private static final class Event {
+        final String source;
+        final String context;
+        final String message;
+        final Throwable error;
+        final long atMillis;
+
+        Event(String source, String context, String message, Throwable error, long atMillis) {
+            this.source = source;
+            this.context = context;
+            this.message = message;
+            this.error = error;
+            this.atMillis = atMillis;
+        }
+    }
+
+    private static final class Group {
+        final String source;
+        final String context;
+        final String type;
+        final AtomicLong total = new AtomicLong();
+        volatile String message;
+        volatile long lastSeenMillis;
+        // drain-thread only
+        long pending;
+        long intervalStart;
+
+        Group(String source, String context, String type) {
+            this.source = source;
+            this.context = context;
+            this.type = type;
+        }
+    }
+
+    private final PrintStream out;
+    private final long intervalMillis;
+    private final LongSupplier clock;
+    private final ConcurrentLinkedQueue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private long droppedReported; // drain-thread only
+    private volatile Thread worker;
+    private volatile boolean stopping;
+
+    ErrorReporter(PrintStream out, long intervalMillis, LongSupplier clock) {
+        this.out = out;
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+    }
+
+    /** Report an error; never blocks and never throws. error may be null for plain warnings. */
+    public static void report(String source, String context, Throwable error) {
+        INSTANCE.submit(source, context, error == null ? null : error.getMessage(), error);
+        INSTANCE.ensureStarted();
+    }
+
+    /** Report a warning without an exception; message carries the variable detail. */
+    public static void warn(String source, String context, String message) {
+        INSTANCE.submit(source, context, message, null);
+        INSTANCE.ensureStarted();
+    }
+
+    /** Per-group counters, most frequent first. */
+    public static List<ErrorCount> counts() {
+        return INSTANCE.snapshot();
+    }
+
+    /** Events discarded because the queue was full. */
+    public static long droppedCount() {
+        return INSTANCE.dropped.sum();
+    }
+
+    /** Stop the background thread after writing any pending summaries (webapp shutdown). */
+    public static void shutdown() {
+        INSTANCE.stop();
+    }
+
+    boolean submit(String source, String context, Throwable error) {
+        return submit(source, context, error == null ? null : error.getMessage(), error);
+    }
+
+    boolean submit(String source, String context, String message, Throwable error) {
+        if (queued.incrementAndGet() > QUEUE_CAPACITY) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(new Event(source, context, message, error, clock.getAsLong()));
+        return true;
+    }
+
+    /** Process queued events and write summaries that are due. Called only by the drain thread. */
+    void drain(boolean flushAll) {
+        Event e;
+        while ((e = queue.poll()) != null) {
+            queued.decrementAndGet();
+            record(e);
+        }
+        long now = clock.getAsLong();
+        groups.values().removeIf(g -> g.pending == 0 && now - g.lastSeenMillis >= GROUP_IDLE_MILLIS);
+        for (Group g : groups.values()) {
+            if (g.pending > 0 && (flushAll || now - g.intervalStart >= intervalMillis)) {
+                out.println("[" + g.source + "] " + g.context + ": " + describe(g) + " (" + g.pending
+                        + (g.pending == 1 ? " occurrence" : " occurrences") + " in last " + (intervalMillis / 1000)
+                        + "s, " + g.total.get() + " total)");
+                g.pending = 0;
+                g.intervalStart = now;
+            }
+        }
+        long droppedNow = dropped.sum();
+        if (droppedNow > droppedReported) {
+            out.println("[ErrorReporter] " + (droppedNow - droppedReported) + " error events dropped (queue full)");
+            droppedReported = droppedNow;
+        }
+    }
+
+    List<ErrorCount> snapshot() {
+        List<ErrorCount> out = new ArrayList<>();
+        for (Group g : groups.values()) {
+            out.add(new ErrorCount(g.source, g.context, g.type, g.message, g.total.get(), g.lastSeenMillis));
+        }
+        out.sort(Comparator.comparingLong(ErrorCount::getTotal).reversed());
+        return out;
+    }
+
+    private void record(Event e) {
+        String type = e.error == null ? null : e.error.getClass().getSimpleName();
+        String message = safeMsg(e.message);
+        String key = e.source + '|' + e.context + '|' + type;
+
+        Group g = groups.get(key);
+        if (g == null) {
+            if (groups.size() >= MAX_GROUPS && !evictLeastRecentlySeen()) {
+                g = groups.computeIfAbsent("overflow", k -> new Group("ErrorReporter", "other errors", null));
+                g.total.incrementAndGet();
+                g.lastSeenMillis = e.atMillis;
+                g.pending++;
+                return;
+            }
+            g = new Group(e.source, e.context, type);
+            groups.put(key, g);
+            g.message = message;
+            g.total.incrementAndGet();
+            g.lastSeenMillis = e.atMillis;
+            g.intervalStart = e.atMillis;
+            out.println("[" + e.source + "] " + e.context + (message == null ? "" : ": " + message));
+            if (e.error != null) {
+                e.error.printStackTrace(out);
+            }
+            return;
+        }
+        g.message = message;
+        g.total.incrementAndGet();
+        g.lastSeenMillis = e.atMillis;
+        g.pending++;
+    }
+
+    /** Drop the least recently seen group that has no pending summary; false if there is none. */
+    private boolean evictLeastRecentlySeen() {
+        String lru = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            Group g = entry.getValue();
+            if (g.pending == 0 && g.lastSeenMillis < oldest) {
+                oldest = g.lastSeenMillis;
+                lru = entry.getKey();
+            }
+        }
+        if (lru == null) {
+            return false;
+        }
+        groups.remove(lru);
+        return true;
+    }
+
+    private void ensureStarted() {
+        if (worker != null || stopping) {
+            return;
+        }
+        synchronized (this) {
+            if (worker != null || stopping) {
+                return;
+            }
+            Thread t = new Thread(this::run, "hellowar-error-reporter");
+            t.setDaemon(true);
+            t.start();
+            worker = t;
+        }
+    }
+
+    private void run() {
+        while (!stopping) {
+            try {
+                drain(false);
+            } catch (RuntimeException ignored) {
+                // keep draining; a broken stream must not kill error accounting
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        drain(true);
+    }
+
+    private void stop() {
+        Thread t;
+        synchronized (this) {
+            stopping = true;
+            t = worker;
+        }
+        if (t == null) {
+            return;
+        }
+        LockSupport.unpark(t);
+        try {
+            t.join(2_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(Group g) {
+        String message = g.message;
+        if (g.type == null) {
+            return message == null ? "warning" : "warning: " + message;
+        }
+        return g.type + (message == null ? "" : ": " + message);
+    }
+
+    private static String safeMsg(String msg) {
+        if (msg == null) {
+            return null;
+        }
+        String m = msg.replaceAll("[\r\n\t]+", " ").trim();
+        return m.length() > MAX_MESSAGE_LENGTH ? m.substring(0, MAX_MESSAGE_LENGTH) + "..." : m;
+    }
+}
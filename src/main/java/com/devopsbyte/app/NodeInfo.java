@@ -0,0 +1,53 @@
+package com.devopsbyte.app;
+
+import java.net.InetAddress;
+
+/**
+ * Identity of this Tomcat node, used to key per-node rows written to the shared database.
+ *
+ * Resolution order: env NODE_ID, env HOSTNAME, local host name, "unknown".
+ * Resolved once at class-load time and then cached.
+ */
+public final class NodeInfo {
+
+    private static final String DEFAULT_NODE_ID = "unknown";
+    private static final int MAX_LENGTH = 128;
+
+    private static final String nodeId;
+
+    static {
+        nodeId = loadNodeId();
+    }
+
+    private NodeInfo() {
+        // utility class, no instances
+    }
+
+    private static String loadNodeId() {
+        String id = firstNonBlank(System.getenv("NODE_ID"), System.getenv("HOSTNAME"));
+        if (id == null) {
+            try {
+                id = firstNonBlank(InetAddress.getLocalHost().getHostName());
+            } catch (Exception ignored) {
+                // fall through to default
+            }
+        }
+        if (id == null) {
+            return DEFAULT_NODE_ID;
+        }
+        return id.length() > MAX_LENGTH ? id.substring(0, MAX_LENGTH) : id;
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String v : values) {
+            if (v != null && !v.isBlank()) {
+                return v.trim();
+            }
+        }
+        return null;
+    }
+
+    public static String getNodeId() {
+        return nodeId;
+    }
+}
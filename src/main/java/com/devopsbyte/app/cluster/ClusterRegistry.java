@@ -0,0 +1,162 @@
+package com.devopsbyte.app.cluster;
+
+import com.devopsbyte.app.ErrorReporter;
+import com.devopsbyte.app.NodeInfo;
+import com.devopsbyte.app.ReleaseInfo;
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.DbWriteResult;
+import com.devopsbyte.app.db.NodeHeartbeat;
+import com.devopsbyte.app.db.NodeHeartbeatDao;
+import com.devopsbyte.app.load.AdaptiveLimiter;
+import com.devopsbyte.app.load.LoadShedding;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Which release runs on which node, without fanning out to every node's /api/health.
+ *
+ * The telemetry thread calls beat() every HEARTBEAT_SECONDS: it upserts this node's
+ * node_heartbeat row and re-reads all rows into a cached ClusterView that /api/cluster serves
+ * as-is. Without a usable DB the view holds only this node. Nodes on shards that cannot be read
+ * keep their last-seen row, aged by the time since it was read, so they still turn stale.
+ *
+ * Load stats (in-flight, concurrency limit, request counts) are summed over the limited lanes.
+ * A node is reported DEGRADED when it shed requests since its previous beat, and a row is
+ * stale once it is older than STALE_AFTER_BEATS heartbeat intervals.
+ */
+public final class ClusterRegistry {
+
+    public static final String HEALTH_UP = "UP";
+    public static final String HEALTH_DEGRADED = "DEGRADED";
+    public static final int STALE_AFTER_BEATS = 3;
+
+    /** Rows older than this are left out of the view entirely (decommissioned nodes). */
+    private static final long RETENTION_SECONDS = 24 * 60 * 60;
+
+    private static final Instant STARTED_AT = Instant.now();
+    private static final AtomicLong shedAtLastBeat = new AtomicLong();
+    private static volatile ClusterView view;
+
+    private ClusterRegistry() {
+        // utility
+    }
+
+    /** Upsert this node's heartbeat and refresh the cached view; never throws. */
+    public static ClusterView beat(NodeHeartbeatDao dao) {
+        return beat(dao, Instant.now());
+    }
+
+    static ClusterView beat(NodeHeartbeatDao dao, Instant now) {
+        NodeHeartbeat self = self(true);
+        DbWriteResult db = dao.upsert(self);
+        List<NodeHeartbeat> nodes = Collections.singletonList(self);
+        if (db.isEnabled() && DatabaseManager.isDbUsable()) {
+            try {
+                NodeHeartbeatDao.Snapshot snapshot = dao.loadAll(RETENTION_SECONDS);
+                List<NodeHeartbeat> rows = snapshot.getRows();
+                if (!snapshot.getFailedShards().isEmpty()) {
+                    rows = carryOver(rows, snapshot.getFailedShards(), view, now);
+                    if (db.isOk()) {
+                        db = DbWriteResult.warn("Cluster view refresh failed for shard(s) "
+                                + snapshot.getFailedShards() + "; their nodes are shown as last seen.");
+                    }
+                }
+                nodes = withSelf(rows, self);
+            } catch (RuntimeException e) {
+                ErrorReporter.report("ClusterRegistry", "Failed to read node_heartbeat rows", e);
+                if (db.isOk()) {
+                    db = DbWriteResult.warn("Cluster view refresh failed; nodes are shown as last seen.");
+                }
+                nodes = withSelf(carryOver(Collections.emptyList(), null, view, now), self);
+            }
+        }
+        ClusterView fresh = new ClusterView(nodes, now, db);
+        view = fresh;
+        return fresh;
+    }
+
+    /**
+     * fresh rows plus the previous view's rows stored on failedShards (all of them if null),
+     * aged by the time since that view was read so they still go stale on schedule.
+     */
+    static List<NodeHeartbeat> carryOver(List<NodeHeartbeat> fresh, Set<Integer> failedShards,
+                                         ClusterView previous, Instant now) {
+        if (previous == null) {
+            return fresh;
+        }
+        long elapsed = Math.max(0, Duration.between(previous.getRefreshedAt(), now).getSeconds());
+        List<NodeHeartbeat> merged = new ArrayList<>(fresh);
+        for (NodeHeartbeat row : previous.getNodes()) {
+            if (failedShards == null || failedShards.contains(DatabaseManager.shardFor(row.getNodeId()).getIndex())) {
+                merged.add(row.aged(elapsed));
+            }
+        }
+        merged.sort(Comparator.comparing(NodeHeartbeat::getNodeId));
+        return merged;
+    }
+
+    /** The cached view; before the first beat, a view of this node alone. */
+    public static ClusterView current() {
+        ClusterView v = view;
+        if (v == null) {
+            return new ClusterView(Collections.singletonList(self(false)), Instant.now(), DbWriteResult.disabled());
+        }
+        return v;
+    }
+
+    /** This node's heartbeat as of now. */
+    static NodeHeartbeat self(boolean advanceShedMark) {
+        int inFlight = 0;
+        int limit = 0;
+        long admitted = 0;
+        long shed = 0;
+        for (AdaptiveLimiter limiter : LoadShedding.limiters().values()) {
+            inFlight += limiter.getInFlight();
+            limit += limiter.getLimit();
+            admitted += limiter.getAdmitted();
+            shed += limiter.getShed();
+        }
+        long previousShed = advanceShedMark ? shedAtLastBeat.getAndSet(shed) : shedAtLastBeat.get();
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        return new NodeHeartbeat(
+                NodeInfo.getNodeId(),
+                ReleaseInfo.getAppVersion(),
+                ReleaseInfo.getReleaseNumber(),
+                shed > previousShed ? HEALTH_DEGRADED : HEALTH_UP,
+                inFlight,
+                limit,
+                admitted + shed,
+                shed,
+                load < 0 ? null : load,
+                STARTED_AT,
+                0);
+    }
+
+    /** Rows with this node's row replaced by the fresher local one, ordered by node id. */
+    static List<NodeHeartbeat> withSelf(List<NodeHeartbeat> rows, NodeHeartbeat self) {
+        List<NodeHeartbeat> merged = new ArrayList<>(rows.size() + 1);
+        boolean added = false;
+        for (NodeHeartbeat row : rows) {
+            int cmp = row.getNodeId().compareTo(self.getNodeId());
+            if (!added && cmp >= 0) {
+                merged.add(self);
+                added = true;
+            }
+            if (cmp != 0) {
+                merged.add(row);
+            }
+        }
+        if (!added) {
+            merged.add(self);
+        }
+        return merged;
+    }
+}
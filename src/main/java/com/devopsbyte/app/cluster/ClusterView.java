@@ -0,0 +1,34 @@
+package com.devopsbyte.app.cluster;
+
+import com.devopsbyte.app.db.DbWriteResult;
+import com.devopsbyte.app.db.NodeHeartbeat;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Immutable snapshot of the node registry as last refreshed by ClusterRegistry. */
+public final class ClusterView {
+    private final List<NodeHeartbeat> nodes;
+    private final Instant refreshedAt;
+    private final DbWriteResult db;
+
+    public ClusterView(List<NodeHeartbeat> nodes, Instant refreshedAt, DbWriteResult db) {
+        this.nodes = List.copyOf(nodes);
+        this.refreshedAt = refreshedAt;
+        this.db = db;
+    }
+
+    /** Known nodes ordered by node id; this node is always included. */
+    public List<NodeHeartbeat> getNodes() {
+        return nodes;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    /** Outcome of the last heartbeat/refresh round (disabled when running without a DB). */
+    public DbWriteResult getDb() {
+        return db;
+    }
+}
@@ -1,8 +1,22 @@
 package com.devopsbyte.app.db;
 
+import com.devopsbyte.app.ErrorReporter;
+import com.devopsbyte.app.trace.RequestTrace;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BinaryOperator;
 
 /**
  * Central place to obtain JDBC connections when the external DB is enabled.
@@ -10,14 +24,25 @@ import java.sql.SQLException;
  * Defensive by design:
  *  - If DbConfig.isEnabled() is false, DB operations are treated as disabled.
  *  - If DB is enabled but credentials are missing, the DB is treated as unusable.
- *  - If the JDBC driver is missing, we log loudly but do not break the webapp.
+ *  - If the JDBC driver is missing, we report it (ErrorReporter) but do not break the webapp.
  *
  * Callers should use isDbUsable() to decide if DB operations should be attempted.
+ *
+ * Sharding:
+ *  - Each URL from DbConfig.getShardUrls() becomes a DbShard with its own connection source.
+ *  - Writes are routed with getConnection(shardKey) through a consistent-hash ShardRing keyed
+ *    by shard name, so the order of DB_SHARD_URLS does not matter.
+ *  - Reads/stats that need every shard go through scatterGather(); a shard that has not answered
+ *    within DbConfig.getShardTimeoutMillis() is reported as failed instead of blocking the caller.
+ *  - shutdown() stops the scatter pool; the webapp calls it on undeploy.
  */
 public final class DatabaseManager {
 
     private static volatile boolean initialized = false;
     private static boolean driverAvailable = false;
+    private static List<DbShard> shards = Collections.emptyList();
+    private static ShardRing ring = new ShardRing(Collections.singletonList("default"));
+    private static ExecutorService scatterPool;
 
     private DatabaseManager() {
         // utility
@@ -35,14 +60,24 @@ public final class DatabaseManager {
             return;
         }
 
+        List<String> urls = DbConfig.getShardUrls();
+        List<String> names = DbConfig.getShardNames();
+        List<DbShard> built = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            built.add(new DbShard(i, names.get(i), urls.get(i)));
+        }
+        shards = Collections.unmodifiableList(built);
+        if (!names.isEmpty()) {
+            ring = new ShardRing(names);
+        }
+
         try {
             // PostgreSQL driver; if not on the classpath this will fail.
             Class.forName("org.postgresql.Driver");
             driverAvailable = true;
         } catch (ClassNotFoundException e) {
-            System.err.println("[DatabaseManager] PostgreSQL JDBC driver not found on classpath. " +
-                    "External DB will be treated as unusable.");
-            e.printStackTrace(System.err);
+            ErrorReporter.report("DatabaseManager",
+                    "PostgreSQL JDBC driver not found on classpath. External DB will be treated as unusable", e);
             driverAvailable = false;
         } finally {
             initialized = true;
@@ -67,12 +102,131 @@ public final class DatabaseManager {
     }
 
     /**
-     * Obtain a new JDBC connection to the configured database.
+     * Obtain a new JDBC connection to the first (primary) shard.
      *
      * @throws IllegalStateException if the DB is not considered usable.
      * @throws SQLException          if the underlying DriverManager cannot open a connection.
      */
     public static Connection getConnection() throws SQLException {
+        return requireShards().get(0).openConnection();
+    }
+
+    /**
+     * Obtain a new JDBC connection to the shard owning the given routing key.
+     *
+     * @throws IllegalStateException if the DB is not considered usable.
+     * @throws SQLException          if the underlying DriverManager cannot open a connection.
+     */
+    public static Connection getConnection(String shardKey) throws SQLException {
+        return shardFor(shardKey).openConnection();
+    }
+
+    /** The shard owning the given routing key. */
+    public static DbShard shardFor(String shardKey) {
+        List<DbShard> all = requireShards();
+        return all.get(ring.shardFor(shardKey));
+    }
+
+    /** Configured shards; empty when the DB is disabled. */
+    public static List<DbShard> getShards() {
+        ensureInitialized();
+        return shards;
+    }
+
+    /**
+     * Run the query against every shard in parallel and fold the results with the combiner,
+     * starting from identity. Intended for read/stats queries over sharded telemetry.
+     *
+     * @throws IllegalStateException if the DB is not considered usable.
+     * @throws SQLException          from the first shard that failed or timed out (other shards
+     *                               still finish).
+     */
+    public static <T> T scatterGather(ShardQuery<T> query, T identity, BinaryOperator<T> combiner)
+            throws SQLException {
+        return scatterGather(query, identity, combiner, DbConfig.getShardTimeoutMillis());
+    }
+
+    static <T> T scatterGather(ShardQuery<T> query, T identity, BinaryOperator<T> combiner, long timeoutMillis)
+            throws SQLException {
+        List<DbShard> all = requireShards();
+        if (all.size() == 1) {
+            return combiner.apply(identity, runOn(all.get(0), query));
+        }
+
+        ExecutorService pool = scatterPool();
+        // shard work is timed into the caller's request trace, not the pool thread's (none)
+        RequestTrace trace = RequestTrace.current();
+        List<CompletableFuture<T>> futures = new ArrayList<>(all.size());
+        for (DbShard shard : all) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                RequestTrace previous = RequestTrace.attach(trace);
+                try {
+                    return runOn(shard, query);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    RequestTrace.restore(previous);
+                }
+            }, pool));
+        }
+
+        // shards run in parallel, so one deadline for all of them is a per-shard timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        T acc = identity;
+        SQLException failure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                long left = Math.max(0, deadline - System.nanoTime());
+                acc = combiner.apply(acc, futures.get(i).get(left, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                    failure = cause instanceof SQLException
+                            ? new SQLException(all.get(i) + ": " + cause.getMessage(), cause)
+                            : new SQLException(all.get(i) + ": " + cause, cause);
+                }
+            } catch (TimeoutException e) {
+                futures.get(i).cancel(true);
+                if (failure == null) {
+                    failure = new SQLTimeoutException(all.get(i) + ": no answer within " + timeoutMillis + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for " + all.get(i), e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return acc;
+    }
+
+    private static <T> T runOn(DbShard shard, ShardQuery<T> query) throws SQLException {
+        try (Connection conn = shard.openConnection()) {
+            return query.run(shard, conn);
+        }
+    }
+
+    private static synchronized ExecutorService scatterPool() {
+        if (scatterPool == null) {
+            scatterPool = Executors.newFixedThreadPool(Math.max(1, shards.size()), r -> {
+                Thread t = new Thread(r, "db-scatter");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return scatterPool;
+    }
+
+    /** Stop the scatter pool; a later scatterGather() starts a new one. */
+    public static synchronized void shutdown() {
+        if (scatterPool != null) {
+            scatterPool.shutdownNow();
+            scatterPool = null;
+        }
+    }
+
+    private static List<DbShard> requireShards() {
         ensureInitialized();
 
         if (!isDbUsable()) {
@@ -82,11 +236,6 @@ public final class DatabaseManager {
             }
             throw new IllegalStateException("Database is not enabled, not configured, or driver not available.");
         }
-
-        return DriverManager.getConnection(
-                DbConfig.getUrl(),
-                DbConfig.getUser(),
-                DbConfig.getPassword()
-        );
+        return shards;
     }
 }
@@ -1,5 +1,11 @@
 package com.devopsbyte.app.db;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * External database configuration sourced from environment variables.
  *
@@ -10,12 +16,26 @@ package com.devopsbyte.app.db;
  * Even when DB_ENABLED=true, the application must remain resilient:
  *  - Missing credentials or connectivity issues must not break HTTP responses.
  *  - Callers can inspect status via helper methods for warnings/diagnostics.
+ *
+ * Sharding:
+ *  - DB_SHARD_URLS may hold a comma-separated list of JDBC URLs; telemetry writes are
+ *    spread across them (see DatabaseManager). All shards share DB_USER/DB_PASSWORD.
+ *  - An entry may be written name=jdbc:...; keys are routed by that name, or by the URL when
+ *    there is none. Naming shards keeps their keys in place when a URL (host) changes; the
+ *    order of the entries never matters.
+ *  - Without DB_SHARD_URLS, DB_URL is the single shard.
+ *  - DB_SHARD_TIMEOUT_MS (default 10000) bounds how long a scatter/gather read waits for a shard.
  */
 public final class DbConfig {
 
+    private static final long DEFAULT_SHARD_TIMEOUT_MILLIS = 10_000;
+
     private static final String url;
     private static final String user;
     private static final String password;
+    private static final List<String> shardUrls;
+    private static final List<String> shardNames;
+    private static final long shardTimeoutMillis;
 
     private static final Boolean enabledFlag; // null when DB_ENABLED is absent
     private static final boolean enabled;
@@ -25,8 +45,12 @@ public final class DbConfig {
         url = trimOrNull(System.getenv("DB_URL"));
         user = trimOrNull(System.getenv("DB_USER"));
         password = trimOrNull(System.getenv("DB_PASSWORD"));
+        Map<String, String> shards = parseShards(trimOrNull(System.getenv("DB_SHARD_URLS")), url);
+        shardNames = Collections.unmodifiableList(new ArrayList<>(shards.keySet()));
+        shardUrls = Collections.unmodifiableList(new ArrayList<>(shards.values()));
+        shardTimeoutMillis = parsePositiveLong(trimOrNull(System.getenv("DB_SHARD_TIMEOUT_MS")), DEFAULT_SHARD_TIMEOUT_MILLIS);
 
-        credentialsPresent = (url != null && user != null && password != null);
+        credentialsPresent = (!shardUrls.isEmpty() && user != null && password != null);
 
         String rawEnabled = trimOrNull(System.getenv("DB_ENABLED"));
         if (rawEnabled == null) {
@@ -60,13 +84,29 @@ public final class DbConfig {
     /** If DB is enabled but credentials are missing, return a short warning message; otherwise null. */
     public static String getConfigWarningIfAny() {
         if (enabled && !credentialsPresent) {
-            return "DB_ENABLED=true but DB_URL/DB_USER/DB_PASSWORD are missing.";
+            return "DB_ENABLED=true but DB_URL (or DB_SHARD_URLS)/DB_USER/DB_PASSWORD are missing.";
         }
         return null;
     }
 
+    /** DB_URL if set, otherwise the first shard URL (may be null). */
     public static String getUrl() {
-        return url;
+        return url != null ? url : (shardUrls.isEmpty() ? null : shardUrls.get(0));
+    }
+
+    /** Shard JDBC URLs in configured order; never null, empty when nothing is configured. */
+    public static List<String> getShardUrls() {
+        return shardUrls;
+    }
+
+    /** Routing name of each shard, parallel to getShardUrls(): the explicit name or the URL. */
+    public static List<String> getShardNames() {
+        return shardNames;
+    }
+
+    /** How long scatter/gather reads wait for each shard, in milliseconds. */
+    public static long getShardTimeoutMillis() {
+        return shardTimeoutMillis;
     }
 
     public static String getUser() {
@@ -85,6 +125,47 @@ public final class DbConfig {
         return trimmed.isEmpty() ? null : trimmed;
     }
 
+    private static long parsePositiveLong(String raw, long def) {
+        if (raw != null) {
+            try {
+                long parsed = Long.parseLong(raw);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return def;
+    }
+
+    /** name -> URL in configured order; entries repeating a name or URL are ignored. */
+    static Map<String, String> parseShards(String raw, String fallbackUrl) {
+        Map<String, String> shards = new LinkedHashMap<>();
+        if (raw != null) {
+            for (String part : raw.split(",")) {
+                String entry = trimOrNull(part);
+                if (entry == null) {
+                    continue;
+                }
+                String name = entry;
+                String u = entry;
+                int jdbc = entry.indexOf("=jdbc:");
+                if (jdbc > 0 && !entry.startsWith("jdbc:")) {
+                    name = entry.substring(0, jdbc).trim();
+                    u = entry.substring(jdbc + 1).trim();
+                }
+                if (!shards.containsKey(name) && !shards.containsValue(u)) {
+                    shards.put(name, u);
+                }
+            }
+        }
+        if (shards.isEmpty() && fallbackUrl != null) {
+            shards.put(fallbackUrl, fallbackUrl);
+        }
+        return shards;
+    }
+
     /**
      * Accepts: true/false (case-insensitive), 1/0, yes/no, y/n.
      * Anything else is treated as false to avoid accidental enabling.
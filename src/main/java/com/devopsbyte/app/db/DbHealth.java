@@ -1,11 +1,19 @@
 package com.devopsbyte.app.db;
 
+import com.devopsbyte.app.trace.HealthCheckEvent;
+
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Performs a lightweight DB validation check for API health reporting.
  * This is best-effort and should never break HTTP responses.
+ *
+ * With several shards configured, each shard is validated separately; check() is OK only
+ * when every shard is, and its warning names the first failing shard.
  */
 public final class DbHealth {
 
@@ -25,7 +33,59 @@ public final class DbHealth {
             return DbWriteResult.warn("DB is enabled but not usable (driver/credentials missing).");
         }
 
-        try (Connection conn = DatabaseManager.getConnection()) {
+        return summarize(checkShards());
+    }
+
+    /** Fold per-shard results (from checkShards()) into the single result check() reports. */
+    public static DbWriteResult summarize(List<DbWriteResult> shardResults) {
+        int total = shardResults.size();
+        String firstWarning = null;
+        int failed = 0;
+        for (int i = 0; i < total; i++) {
+            DbWriteResult r = shardResults.get(i);
+            if (!r.isOk()) {
+                failed++;
+                if (firstWarning == null) {
+                    firstWarning = total == 1 ? r.getWarning() : "shard " + i + " of " + total + ": " + r.getWarning();
+                }
+            }
+        }
+        if (firstWarning == null) {
+            return DbWriteResult.ok();
+        }
+        if (failed > 1) {
+            return DbWriteResult.warn(failed + " of " + total + " shards unhealthy; " + firstWarning);
+        }
+        return DbWriteResult.warn(firstWarning);
+    }
+
+    /**
+     * Per-shard results in shard order; empty when the DB is disabled, misconfigured or unusable
+     * (check() explains why in that case).
+     */
+    public static List<DbWriteResult> checkShards() {
+        if (!DbConfig.isEnabled() || DbConfig.getConfigWarningIfAny() != null || !DatabaseManager.isDbUsable()) {
+            return Collections.emptyList();
+        }
+        List<DbShard> shards = DatabaseManager.getShards();
+        List<DbWriteResult> results = new ArrayList<>(shards.size());
+        for (DbShard shard : shards) {
+            results.add(checkShard(shard));
+        }
+        return results;
+    }
+
+    private static DbWriteResult checkShard(DbShard shard) {
+        HealthCheckEvent event = new HealthCheckEvent();
+        event.shard = shard.getIndex();
+        event.start();
+        DbWriteResult result = validate(shard);
+        event.finish(result.isOk() ? "ok" : "unhealthy");
+        return result;
+    }
+
+    private static DbWriteResult validate(DbShard shard) {
+        try (Connection conn = shard.openConnection()) {
             boolean valid = false;
             try {
                 valid = conn.isValid(2);
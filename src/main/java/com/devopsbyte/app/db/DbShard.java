@@ -0,0 +1,57 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.trace.ConnectionAcquireEvent;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * One PostgreSQL shard: its position in DB_SHARD_URLS, the name it is hashed by on the ShardRing
+ * and the connection source for it. Credentials are shared across shards (DB_USER/DB_PASSWORD).
+ */
+public final class DbShard {
+
+    private final int index;
+    private final String name;
+    private final String url;
+
+    DbShard(int index, String name, String url) {
+        this.index = index;
+        this.name = name;
+        this.url = url;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /** Explicit shard name, or the URL when none was given. */
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /** Open a new connection to this shard (timed as a ConnectionAcquireEvent). */
+    public Connection openConnection() throws SQLException {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.shard = index;
+        event.start();
+        try {
+            Connection conn = DriverManager.getConnection(url, DbConfig.getUser(), DbConfig.getPassword());
+            event.finish("ok");
+            return conn;
+        } catch (SQLException | RuntimeException e) {
+            event.finish("error");
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index;
+    }
+}
@@ -0,0 +1,120 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.ErrorReporter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists serialised HyperLogLog sketches (see db/schema.sql, table hll_sketch) so distinct
+ * counts can be merged across Tomcat nodes and time ranges.
+ *
+ * Each node upserts its own row per (endpoint, dimension, granularity, window); a node's sketch
+ * for a window only ever grows, so the latest write simply replaces the previous one.
+ * Rows are routed to a shard by node id; loadRegisters() reads every shard.
+ */
+public class HllSketchDao {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO hll_sketch (node_id, endpoint, dimension, granularity, window_start, precision, registers) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (endpoint, dimension, granularity, window_start, node_id) " +
+            "DO UPDATE SET precision = EXCLUDED.precision, registers = EXCLUDED.registers, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String SELECT_RANGE_SQL =
+            "SELECT registers FROM hll_sketch " +
+            "WHERE endpoint = ? AND dimension = ? AND granularity = ? AND window_start >= ? AND window_start <= ?";
+
+    public DbWriteResult upsert(String nodeId,
+                                String endpoint,
+                                String dimension,
+                                String granularity,
+                                Instant windowStart,
+                                int precision,
+                                byte[] registers) {
+        if (!DbConfig.isEnabled()) {
+            return DbWriteResult.disabled();
+        }
+
+        String configWarn = DbConfig.getConfigWarningIfAny();
+        if (configWarn != null) {
+            return DbWriteResult.warn(configWarn);
+        }
+
+        if (!DatabaseManager.isDbUsable()) {
+            return DbWriteResult.warn("DB is enabled but not usable (driver/credentials missing).");
+        }
+
+        try (Connection conn = DatabaseManager.getConnection(nodeId);
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            ps.setString(1, nodeId);
+            ps.setString(2, endpoint);
+            ps.setString(3, dimension);
+            ps.setString(4, granularity);
+            ps.setObject(5, utc(windowStart));
+            ps.setInt(6, precision);
+            ps.setBytes(7, registers);
+            TracedStatements.executeUpdate(ps, "hll_sketch.upsert");
+            return DbWriteResult.ok();
+
+        } catch (SQLException e) {
+            ErrorReporter.report("HllSketchDao", "Failed to upsert hll_sketch row", e);
+            return DbWriteResult.warn("DB write failed: " + safeMsg(e.getMessage()));
+        } catch (RuntimeException e) {
+            ErrorReporter.report("HllSketchDao", "Unexpected runtime exception while flushing", e);
+            return DbWriteResult.warn("DB runtime error: " + safeMsg(e.getMessage()));
+        }
+    }
+
+    /**
+     * Serialised sketches from every node and shard for windows starting within [from, to].
+     *
+     * @throws IllegalStateException if the DB is not considered usable.
+     * @throws SQLException          if any shard fails.
+     */
+    public List<byte[]> loadRegisters(String endpoint,
+                                      String dimension,
+                                      String granularity,
+                                      Instant from,
+                                      Instant to) throws SQLException {
+        return DatabaseManager.scatterGather((shard, conn) -> {
+            List<byte[]> rows = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_RANGE_SQL)) {
+                ps.setString(1, endpoint);
+                ps.setString(2, dimension);
+                ps.setString(3, granularity);
+                ps.setObject(4, utc(from));
+                ps.setObject(5, utc(to));
+                try (ResultSet rs = TracedStatements.executeQuery(ps, "hll_sketch.select")) {
+                    while (rs.next()) {
+                        rows.add(rs.getBytes(1));
+                    }
+                }
+            }
+            return rows;
+        }, new ArrayList<>(), (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private String safeMsg(String msg) {
+        if (msg == null) {
+            return "unknown";
+        }
+        String m = msg.replaceAll("[\r\n\t]+", " ").trim();
+        return m.length() > 160 ? m.substring(0, 160) + "..." : m;
+    }
+}
@@ -0,0 +1,86 @@
+package com.devopsbyte.app.db;
+
+import java.time.Instant;
+
+/** One node's node_heartbeat row: what it runs and how loaded it was at its last beat. */
+public final class NodeHeartbeat {
+    private final String nodeId;
+    private final String appVersion;
+    private final int releaseNumber;
+    private final String health;
+    private final int inFlight;
+    private final int concurrencyLimit;
+    private final long requestsTotal;
+    private final long requestsShed;
+    private final Double loadAverage;
+    private final Instant startedAt;
+    private final long ageSeconds;
+
+    public NodeHeartbeat(String nodeId, String appVersion, int releaseNumber, String health,
+                         int inFlight, int concurrencyLimit, long requestsTotal, long requestsShed,
+                         Double loadAverage, Instant startedAt, long ageSeconds) {
+        this.nodeId = nodeId;
+        this.appVersion = appVersion;
+        this.releaseNumber = releaseNumber;
+        this.health = health;
+        this.inFlight = inFlight;
+        this.concurrencyLimit = concurrencyLimit;
+        this.requestsTotal = requestsTotal;
+        this.requestsShed = requestsShed;
+        this.loadAverage = loadAverage;
+        this.startedAt = startedAt;
+        this.ageSeconds = ageSeconds;
+    }
+
+    /** The same row, extraSeconds older (for rows carried over from an earlier read). */
+    public NodeHeartbeat aged(long extraSeconds) {
+        return new NodeHeartbeat(nodeId, appVersion, releaseNumber, health, inFlight, concurrencyLimit,
+                requestsTotal, requestsShed, loadAverage, startedAt, ageSeconds + extraSeconds);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getAppVersion() {
+        return appVersion;
+    }
+
+    public int getReleaseNumber() {
+        return releaseNumber;
+    }
+
+    public String getHealth() {
+        return health;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public long getRequestsTotal() {
+        return requestsTotal;
+    }
+
+    public long getRequestsShed() {
+        return requestsShed;
+    }
+
+    /** System load average at the last beat, or null if the OS does not report one. */
+    public Double getLoadAverage() {
+        return loadAverage;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /** Seconds between the last beat and the read, by the database clock (0 for a local row). */
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+}
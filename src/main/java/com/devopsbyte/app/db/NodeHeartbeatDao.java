@@ -0,0 +1,172 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.ErrorReporter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Node registry (see db/schema.sql, table node_heartbeat): each node upserts its own row,
+ * routed to a shard by node id; loadAll() reads every shard and reports the ones that failed.
+ *
+ * Row ages are computed by the database clock, so skewed node clocks cannot make a live node
+ * look stale or a dead one look alive.
+ */
+public class NodeHeartbeatDao {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO node_heartbeat (node_id, app_version, release_number, health, in_flight, " +
+            "concurrency_limit, requests_total, requests_shed, load_average, started_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (node_id) DO UPDATE SET app_version = EXCLUDED.app_version, " +
+            "release_number = EXCLUDED.release_number, health = EXCLUDED.health, " +
+            "in_flight = EXCLUDED.in_flight, concurrency_limit = EXCLUDED.concurrency_limit, " +
+            "requests_total = EXCLUDED.requests_total, requests_shed = EXCLUDED.requests_shed, " +
+            "load_average = EXCLUDED.load_average, started_at = EXCLUDED.started_at, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String SELECT_RECENT_SQL =
+            "SELECT node_id, app_version, release_number, health, in_flight, concurrency_limit, " +
+            "requests_total, requests_shed, load_average, started_at, " +
+            "CAST(EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - updated_at)) AS BIGINT) AS age_seconds " +
+            "FROM node_heartbeat WHERE updated_at > CURRENT_TIMESTAMP - make_interval(secs => ?)";
+
+    public DbWriteResult upsert(NodeHeartbeat beat) {
+        if (!DbConfig.isEnabled()) {
+            return DbWriteResult.disabled();
+        }
+
+        String configWarn = DbConfig.getConfigWarningIfAny();
+        if (configWarn != null) {
+            return DbWriteResult.warn(configWarn);
+        }
+
+        if (!DatabaseManager.isDbUsable()) {
+            return DbWriteResult.warn("DB is enabled but not usable (driver/credentials missing).");
+        }
+
+        try (Connection conn = DatabaseManager.getConnection(beat.getNodeId());
+             PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+
+            ps.setString(1, beat.getNodeId());
+            ps.setString(2, beat.getAppVersion() != null ? beat.getAppVersion() : "");
+            ps.setInt(3, beat.getReleaseNumber());
+            ps.setString(4, beat.getHealth());
+            ps.setInt(5, beat.getInFlight());
+            ps.setInt(6, beat.getConcurrencyLimit());
+            ps.setLong(7, beat.getRequestsTotal());
+            ps.setLong(8, beat.getRequestsShed());
+            if (beat.getLoadAverage() != null) {
+                ps.setDouble(9, beat.getLoadAverage());
+            } else {
+                ps.setNull(9, Types.DOUBLE);
+            }
+            ps.setObject(10, beat.getStartedAt().atOffset(ZoneOffset.UTC));
+            TracedStatements.executeUpdate(ps, "node_heartbeat.upsert");
+            return DbWriteResult.ok();
+
+        } catch (SQLException e) {
+            ErrorReporter.report("NodeHeartbeatDao", "Failed to upsert node_heartbeat row", e);
+            return DbWriteResult.warn("DB write failed: " + safeMsg(e.getMessage()));
+        } catch (RuntimeException e) {
+            ErrorReporter.report("NodeHeartbeatDao", "Unexpected runtime exception while sending heartbeat", e);
+            return DbWriteResult.warn("DB runtime error: " + safeMsg(e.getMessage()));
+        }
+    }
+
+    /** Result of loadAll(): the rows read and the shards that could not be read. */
+    public static final class Snapshot {
+        private final List<NodeHeartbeat> rows;
+        private final Set<Integer> failedShards;
+
+        Snapshot(List<NodeHeartbeat> rows, Set<Integer> failedShards) {
+            this.rows = rows;
+            this.failedShards = failedShards;
+        }
+
+        /** Rows from the shards that answered, ordered by node id. */
+        public List<NodeHeartbeat> getRows() {
+            return rows;
+        }
+
+        /** Indexes of shards whose read failed (reported through ErrorReporter). */
+        public Set<Integer> getFailedShards() {
+            return failedShards;
+        }
+    }
+
+    /**
+     * Rows that beat within the last retentionSeconds, read from each shard separately so one
+     * unreachable shard only hides the nodes it stores.
+     *
+     * @throws IllegalStateException if the DB is not considered usable.
+     */
+    public Snapshot loadAll(long retentionSeconds) {
+        List<NodeHeartbeat> all = new ArrayList<>();
+        Set<Integer> failed = new TreeSet<>();
+        for (DbShard shard : DatabaseManager.getShards()) {
+            try (Connection conn = shard.openConnection()) {
+                all.addAll(loadShard(conn, retentionSeconds));
+            } catch (SQLException | RuntimeException e) {
+                ErrorReporter.report("NodeHeartbeatDao", "Failed to read node_heartbeat rows from " + shard, e);
+                failed.add(shard.getIndex());
+            }
+        }
+        // a node's row can sit on two shards after the routing changed (shards added or renamed);
+        // the fresher one wins until the stale one passes retention
+        all.sort(Comparator.comparing(NodeHeartbeat::getNodeId).thenComparingLong(NodeHeartbeat::getAgeSeconds));
+        List<NodeHeartbeat> rows = new ArrayList<>(all.size());
+        for (NodeHeartbeat row : all) {
+            if (rows.isEmpty() || !rows.get(rows.size() - 1).getNodeId().equals(row.getNodeId())) {
+                rows.add(row);
+            }
+        }
+        return new Snapshot(rows, Collections.unmodifiableSet(failed));
+    }
+
+    private static List<NodeHeartbeat> loadShard(Connection conn, long retentionSeconds) throws SQLException {
+        List<NodeHeartbeat> rows = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_RECENT_SQL)) {
+            ps.setLong(1, retentionSeconds);
+            try (ResultSet rs = TracedStatements.executeQuery(ps, "node_heartbeat.select")) {
+                while (rs.next()) {
+                    double load = rs.getDouble(9);
+                    Double loadAverage = rs.wasNull() ? null : load;
+                    OffsetDateTime startedAt = rs.getObject(10, OffsetDateTime.class);
+                    rows.add(new NodeHeartbeat(
+                            rs.getString(1),
+                            rs.getString(2),
+                            rs.getInt(3),
+                            rs.getString(4),
+                            rs.getInt(5),
+                            rs.getInt(6),
+                            rs.getLong(7),
+                            rs.getLong(8),
+                            loadAverage,
+                            startedAt.toInstant(),
+                            rs.getLong(11)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private String safeMsg(String msg) {
+        if (msg == null) {
+            return "unknown";
+        }
+        String m = msg.replaceAll("[\r\n\t]+", " ").trim();
+        return m.length() > 160 ? m.substring(0, 160) + "..." : m;
+    }
+}
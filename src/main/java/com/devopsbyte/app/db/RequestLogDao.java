@@ -1,5 +1,7 @@
 package com.devopsbyte.app.db;
 
+import com.devopsbyte.app.ErrorReporter;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -9,14 +11,16 @@ import java.sql.SQLException;
  *
  * Important behaviour:
  *  - If the DB is not usable, all methods return immediately (no-op).
- *  - SQL failures are logged to stderr but never propagated back to the servlet,
- *    so HTTP responses are not impacted by DB issues.
+ *  - SQL failures are reported through ErrorReporter (async, deduplicated) but never
+ *    propagated back to the servlet, so HTTP responses are not impacted by DB issues.
+ *  - Rows are routed to a shard by remote address (there is no request id here), which
+ *    spreads load across shards while keeping one client's rows together.
  *
  * Schema suggested for the backing table (PostgreSQL):
  *
  *   CREATE TABLE request_log (
  *       id BIGSERIAL PRIMARY KEY,
- *       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+ *       created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
  *       path VARCHAR(255),
  *       remote_addr VARCHAR(64),
  *       app_env VARCHAR(64),
@@ -37,21 +41,19 @@ public class RequestLogDao {
             return;
         }
 
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getConnection(remoteAddr);
              PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
 
             ps.setString(1, path);
             ps.setString(2, remoteAddr);
             ps.setString(3, appEnv != null ? appEnv : "");
             ps.setString(4, message != null ? message : "");
-            ps.executeUpdate();
+            TracedStatements.executeUpdate(ps, "request_log.insert");
 
         } catch (SQLException e) {
-            System.err.println("[RequestLogDao] Failed to insert request_log row: " + e.getMessage());
-            e.printStackTrace(System.err);
+            ErrorReporter.report("RequestLogDao", "Failed to insert request_log row", e);
         } catch (RuntimeException e) {
-            System.err.println("[RequestLogDao] Unexpected runtime exception while logging request: " + e.getMessage());
-            e.printStackTrace(System.err);
+            ErrorReporter.report("RequestLogDao", "Unexpected runtime exception while logging request", e);
         }
     }
 }
@@ -0,0 +1,11 @@
+package com.devopsbyte.app.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** Per-shard unit of work for DatabaseManager.scatterGather(). */
+@FunctionalInterface
+public interface ShardQuery<T> {
+
+    T run(DbShard shard, Connection conn) throws SQLException;
+}
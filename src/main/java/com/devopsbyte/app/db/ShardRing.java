@@ -0,0 +1,74 @@
+package com.devopsbyte.app.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping routing keys (request id, remote address, ...) to shard indexes.
+ *
+ * Each shard owns VIRTUAL_NODES points on a 64-bit ring; a key belongs to the first point at or
+ * after its hash. Adding an N+1th shard therefore moves only ~1/(N+1) of the keys, all of them
+ * onto the new shard, instead of rehashing everything the way {@code hash % N} would.
+ *
+ * Points are derived from each shard's name (its explicit name or JDBC URL, see DbConfig), not
+ * its position in the list, so every node with the same set of shards routes identically and
+ * reordering DB_SHARD_URLS moves no keys. Immutable and safe for concurrent use.
+ */
+public final class ShardRing {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private final int shardCount;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    /** shardNames.get(i) identifies shard index i; names must be distinct. */
+    public ShardRing(List<String> shardNames) {
+        if (shardNames.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+        if (new HashSet<>(shardNames).size() != shardNames.size()) {
+            throw new IllegalArgumentException("shard names must be distinct: " + shardNames);
+        }
+        this.shardCount = shardNames.size();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                ring.put(hash(shardNames.get(shard) + "#" + v), shard);
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /** Shard index in [0, shardCount) for the key; null keys route like the empty string. */
+    public int shardFor(String key) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        long h = hash(key != null ? key : "");
+        Map.Entry<Long, Integer> owner = ring.ceilingEntry(h);
+        if (owner == null) {
+            owner = ring.firstEntry(); // wrap around
+        }
+        return owner.getValue();
+    }
+
+    /** 64-bit FNV-1a followed by a murmur-style finalizer for better avalanche on short keys. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
@@ -0,0 +1,47 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.trace.StatementEvent;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Executes prepared statements as StatementEvents, so every DAO statement shows up in JFR
+ * recordings (and, on request threads, in the db-exec Server-Timing phase) under a short name
+ * such as "version_hit.insert". For queries only the execute is timed, not reading the rows.
+ */
+final class TracedStatements {
+
+    private TracedStatements() {
+        // utility
+    }
+
+    static int executeUpdate(PreparedStatement ps, String statement) throws SQLException {
+        StatementEvent event = new StatementEvent();
+        event.statement = statement;
+        event.start();
+        try {
+            int count = ps.executeUpdate();
+            event.finish("ok");
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            event.finish("error");
+            throw e;
+        }
+    }
+
+    static ResultSet executeQuery(PreparedStatement ps, String statement) throws SQLException {
+        StatementEvent event = new StatementEvent();
+        event.statement = statement;
+        event.start();
+        try {
+            ResultSet rs = ps.executeQuery();
+            event.finish("ok");
+            return rs;
+        } catch (SQLException | RuntimeException e) {
+            event.finish("error");
+            throw e;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.devopsbyte.app.db;
 
+import com.devopsbyte.app.ErrorReporter;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
 
 /**
  * Best-effort telemetry logging for version hits.
  *
  * Never throws to callers; instead returns DbWriteResult so API responses can include warnings.
+ * Rows are routed to a shard by request id, so writes spread evenly across shards.
+ *
+ * Columns are bound with their native types (SMALLINT version, UUID request_id); a request id
+ * that is not a UUID is stored as NULL rather than failing the write.
  */
 public class VersionHitDao {
 
@@ -34,28 +42,42 @@ public class VersionHitDao {
             return DbWriteResult.warn("DB is enabled but not usable (driver/credentials missing).");
         }
 
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getConnection(requestId);
              PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
 
-            ps.setInt(1, version);
+            ps.setShort(1, (short) version);
             ps.setString(2, appVersion != null ? appVersion : "");
             ps.setInt(3, releaseNumber);
-            ps.setString(4, requestId != null ? requestId : "");
+            UUID uuid = parseUuid(requestId);
+            if (uuid != null) {
+                ps.setObject(4, uuid);
+            } else {
+                ps.setNull(4, Types.OTHER);
+            }
             ps.setString(5, userAgent != null ? userAgent : "");
-            ps.executeUpdate();
+            TracedStatements.executeUpdate(ps, "version_hit.insert");
             return DbWriteResult.ok();
 
         } catch (SQLException e) {
-            System.err.println("[VersionHitDao] Failed to insert version_hit row: " + e.getMessage());
-            e.printStackTrace(System.err);
+            ErrorReporter.report("VersionHitDao", "Failed to insert version_hit row", e);
             return DbWriteResult.warn("DB write failed: " + safeMsg(e.getMessage()));
         } catch (RuntimeException e) {
-            System.err.println("[VersionHitDao] Unexpected runtime exception while logging: " + e.getMessage());
-            e.printStackTrace(System.err);
+            ErrorReporter.report("VersionHitDao", "Unexpected runtime exception while logging", e);
             return DbWriteResult.warn("DB runtime error: " + safeMsg(e.getMessage()));
         }
     }
 
+    private static UUID parseUuid(String requestId) {
+        if (requestId == null || requestId.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(requestId.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String safeMsg(String msg) {
         if (msg == null) {
             return "unknown";
@@ -0,0 +1,34 @@
+package com.devopsbyte.app.db;
+
+import java.time.Instant;
+
+/** Hits for one (bucket, version, release) cell of a version_hit rollup. */
+public final class VersionHitRollup {
+    private final Instant bucketStart;
+    private final int version;
+    private final int releaseNumber;
+    private final long hits;
+
+    public VersionHitRollup(Instant bucketStart, int version, int releaseNumber, long hits) {
+        this.bucketStart = bucketStart;
+        this.version = version;
+        this.releaseNumber = releaseNumber;
+        this.hits = hits;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getReleaseNumber() {
+        return releaseNumber;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,203 @@
+package com.devopsbyte.app.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental per-minute / per-hour rollups of version_hit (see db/schema.sql).
+ *
+ * materialize() folds rows with id in (watermark, upper] into both rollup tables and advances
+ * the watermark in one transaction, so a crash or restart either applies a batch completely or
+ * not at all. The watermark row is locked with SKIP LOCKED: when several Tomcat nodes run the
+ * materializer, one works a shard while the others skip it.
+ *
+ * Rows younger than the configured lag are left for a later pass, giving in-flight inserts
+ * (ids are assigned before commit) time to become visible before the watermark passes them.
+ *
+ * query() reads the rollups for a time range and adds the raw rows above the watermark, so
+ * results are current while the cost depends on the range, not on the size of version_hit.
+ *
+ * Buckets are version_hit.created_at truncated to the minute/hour in UTC.
+ */
+public class VersionHitRollupDao {
+
+    public static final String MINUTE = "minute";
+    public static final String HOUR = "hour";
+
+    private static final String WATERMARK_NAME = "version_hit";
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_id FROM rollup_watermark WHERE name = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String UPPER_BOUND_SQL =
+            "SELECT MAX(id) FROM (" +
+            "  SELECT id FROM version_hit WHERE id > ? " +
+            "  AND created_at < CURRENT_TIMESTAMP - make_interval(secs => ?) " +
+            "  ORDER BY id LIMIT ?" +
+            ") batch";
+
+    private static final String ROLLUP_UPSERT_SQL =
+            "INSERT INTO version_hit_rollup_%1$s (bucket_start, version, release_number, hits) " +
+            "SELECT date_trunc('%1$s', created_at, 'UTC'), version, release_number, COUNT(*) " +
+            "FROM version_hit WHERE id > ? AND id <= ? GROUP BY 1, 2, 3 " +
+            "ON CONFLICT (bucket_start, version, release_number) " +
+            "DO UPDATE SET hits = version_hit_rollup_%1$s.hits + EXCLUDED.hits";
+
+    private static final String ADVANCE_WATERMARK_SQL =
+            "UPDATE rollup_watermark SET last_id = ?, updated_at = CURRENT_TIMESTAMP WHERE name = ?";
+
+    private static final String QUERY_SQL =
+            "SELECT bucket_start, version, release_number, SUM(hits) FROM (" +
+            "  SELECT bucket_start, version, release_number, hits FROM version_hit_rollup_%1$s " +
+            "  WHERE bucket_start >= ? AND bucket_start < ? " +
+            "  UNION ALL " +
+            "  SELECT date_trunc('%1$s', created_at, 'UTC'), version, release_number, COUNT(*) FROM version_hit " +
+            "  WHERE id > COALESCE((SELECT last_id FROM rollup_watermark WHERE name = '" + WATERMARK_NAME + "'), 0) " +
+            "  AND created_at >= ? AND created_at < ? GROUP BY 1, 2, 3" +
+            ") combined GROUP BY 1, 2, 3";
+
+    /**
+     * Run materialization passes on every shard until each is caught up or maxBatches batches
+     * have been applied to it.
+     *
+     * @return how far the watermarks advanced in total (version_hit ids covered).
+     * @throws IllegalStateException if the DB is not considered usable.
+     * @throws SQLException          from the first failing shard (earlier shards keep their progress).
+     */
+    public long materializeAll(int batchSize, int lagSeconds, int maxBatches) throws SQLException {
+        long total = 0;
+        for (DbShard shard : DatabaseManager.getShards()) {
+            for (int i = 0; i < maxBatches; i++) {
+                long advanced = materialize(shard, batchSize, lagSeconds);
+                total += advanced;
+                if (advanced == 0) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Fold the next batch of up to batchSize rows on one shard.
+     *
+     * @return how far the watermark advanced; 0 when caught up or when another node holds it.
+     */
+    public long materialize(DbShard shard, int batchSize, int lagSeconds) throws SQLException {
+        try (Connection conn = shard.openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long advanced = materializeBatch(conn, batchSize, lagSeconds);
+                conn.commit();
+                return advanced;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private long materializeBatch(Connection conn, int batchSize, int lagSeconds) throws SQLException {
+        long lastId;
+        try (PreparedStatement ps = conn.prepareStatement(LOCK_WATERMARK_SQL)) {
+            ps.setString(1, WATERMARK_NAME);
+            try (ResultSet rs = TracedStatements.executeQuery(ps, "rollup_watermark.lock")) {
+                if (!rs.next()) {
+                    return 0; // locked by another node, or schema.sql not applied
+                }
+                lastId = rs.getLong(1);
+            }
+        }
+
+        long upperId;
+        try (PreparedStatement ps = conn.prepareStatement(UPPER_BOUND_SQL)) {
+            ps.setLong(1, lastId);
+            ps.setInt(2, lagSeconds);
+            ps.setInt(3, batchSize);
+            try (ResultSet rs = TracedStatements.executeQuery(ps, "version_hit.batch_bound")) {
+                rs.next();
+                upperId = rs.getLong(1);
+                if (rs.wasNull() || upperId <= lastId) {
+                    return 0;
+                }
+            }
+        }
+
+        for (String granularity : new String[]{MINUTE, HOUR}) {
+            try (PreparedStatement ps = conn.prepareStatement(String.format(ROLLUP_UPSERT_SQL, granularity))) {
+                ps.setLong(1, lastId);
+                ps.setLong(2, upperId);
+                TracedStatements.executeUpdate(ps, "version_hit_rollup_" + granularity + ".upsert");
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(ADVANCE_WATERMARK_SQL)) {
+            ps.setLong(1, upperId);
+            ps.setString(2, WATERMARK_NAME);
+            TracedStatements.executeUpdate(ps, "rollup_watermark.advance");
+        }
+        return upperId - lastId;
+    }
+
+    /**
+     * Hits per (bucket, version, release) for buckets in [from, to), summed across shards and
+     * ordered by bucket, version, release.
+     *
+     * @param granularity MINUTE or HOUR.
+     * @throws IllegalArgumentException for an unknown granularity.
+     * @throws IllegalStateException    if the DB is not considered usable.
+     * @throws SQLException             if any shard fails.
+     */
+    public List<VersionHitRollup> query(String granularity, Instant from, Instant to)
+            throws SQLException {
+        if (!MINUTE.equals(granularity) && !HOUR.equals(granularity)) {
+            throw new IllegalArgumentException("granularity must be minute or hour");
+        }
+        String sql = String.format(QUERY_SQL, granularity);
+        OffsetDateTime fromUtc = from.atOffset(ZoneOffset.UTC);
+        OffsetDateTime toUtc = to.atOffset(ZoneOffset.UTC);
+
+        Map<String, VersionHitRollup> merged = DatabaseManager.scatterGather((shard, conn) -> {
+            Map<String, VersionHitRollup> rows = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setObject(1, fromUtc);
+                ps.setObject(2, toUtc);
+                ps.setObject(3, fromUtc);
+                ps.setObject(4, toUtc);
+                String name = "version_hit_rollup_" + granularity + ".select";
+                try (ResultSet rs = TracedStatements.executeQuery(ps, name)) {
+                    while (rs.next()) {
+                        add(rows, new VersionHitRollup(rs.getObject(1, OffsetDateTime.class).toInstant(),
+                                rs.getInt(2), rs.getInt(3), rs.getLong(4)));
+                    }
+                }
+            }
+            return rows;
+        }, new LinkedHashMap<>(), (acc, shardRows) -> {
+            shardRows.values().forEach(r -> add(acc, r));
+            return acc;
+        });
+
+        List<VersionHitRollup> out = new ArrayList<>(merged.values());
+        out.sort(Comparator.comparing(VersionHitRollup::getBucketStart)
+                .thenComparingInt(VersionHitRollup::getVersion)
+                .thenComparingInt(VersionHitRollup::getReleaseNumber));
+        return out;
+    }
+
+    private static void add(Map<String, VersionHitRollup> acc, VersionHitRollup row) {
+        String key = row.getBucketStart() + "|" + row.getVersion() + "|" + row.getReleaseNumber();
+        acc.merge(key, row, (a, b) -> new VersionHitRollup(a.getBucketStart(), a.getVersion(),
+                a.getReleaseNumber(), a.getHits() + b.getHits()));
+    }
+}
@@ -0,0 +1,198 @@
+package com.devopsbyte.app.load;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Gradient concurrency limit for one lane: the in-flight limit shrinks when the lane's latency
+ * rises above the lowest latency it recently showed and grows (by about sqrt(limit) per
+ * window) while it does not.
+ *
+ * Latency is compared per sample window, not per request: a window closes once it is at least
+ * windowNanos long and holds minWindowSamples completions, and its average RTT is what the
+ * gradient uses. A lane serving a steady mix of fast and slow requests therefore sees a steady
+ * average and keeps its limit; only a rising average (queueing) shrinks it.
+ *
+ *   gradient = clamp(tolerance * minRtt / windowRtt, 0.5, 1.0)
+ *   target   = limit * gradient + sqrt(limit)
+ *   limit    = (1 - smoothing) * limit + smoothing * target      in [minLimit, maxLimit]
+ *
+ * minRtt (the lowest window average) is forgotten every minRttResetNanos so the limiter
+ * re-learns the baseline after the lane's steady-state latency changes (new release, different
+ * DB). The limit never grows on windows that used less than half of it.
+ *
+ * Requests beyond the limit are not queued; the caller sheds them at once. Sheds are counted
+ * as drops but do not feed back into the limit, which only latency moves. A share of the limit
+ * (priorityReserve) is kept for priority requests, which may use all of it.
+ */
+public final class AdaptiveLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double priorityReserve;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final long minRttResetNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder shedPriority = new LongAdder();
+
+    // guarded by this; limit is also read without the lock
+    private volatile double limit;
+    private long minRttNanos;
+    private long minRttSince;
+    private long lastRttNanos;
+    private long windowStart;
+    private long windowSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+                           double smoothing, double priorityReserve, long windowNanos, int minWindowSamples,
+                           long minRttResetNanos, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1.0 || smoothing <= 0 || smoothing > 1
+                || priorityReserve < 0 || priorityReserve >= 1 || windowNanos < 0 || minWindowSamples < 1) {
+            throw new IllegalArgumentException("invalid adaptive limiter settings for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.priorityReserve = priorityReserve;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.minRttResetNanos = minRttResetNanos;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        long now = nanoClock.getAsLong();
+        this.minRttSince = now;
+        this.windowStart = now;
+    }
+
+    /**
+     * Claim an in-flight slot; false means shed the request. A true result must be followed by
+     * exactly one of onSuccess or onIgnore.
+     */
+    public boolean tryAcquire(boolean priority) {
+        int cap = priority ? getLimit() : normalCap();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                shed.increment();
+                if (priority) shedPriority.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    /** Request completed after rttNanos; feeds the current sample window. */
+    public void onSuccess(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (rttNanos <= 0) {
+            return;
+        }
+        synchronized (this) {
+            windowSumNanos += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            long now = nanoClock.getAsLong();
+            if (windowSamples >= minWindowSamples && now - windowStart >= windowNanos) {
+                update(now, windowSumNanos / windowSamples, windowMaxInFlight);
+                windowStart = now;
+                windowSumNanos = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+            }
+        }
+    }
+
+    /**
+     * Request finished without a usable latency sample (rejected further down the chain,
+     * exception): free the slot only.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    // caller holds the lock
+    private void update(long now, long rttNanos, int maxInFlight) {
+        if (minRttNanos == 0 || now - minRttSince >= minRttResetNanos) {
+            minRttNanos = rttNanos;
+            minRttSince = now;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+        lastRttNanos = rttNanos;
+
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * minRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        // a lane that did not use its limit has not proven it can take more
+        if (target > current && maxInFlight < current / 2) {
+            return;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, (1 - smoothing) * current + smoothing * target));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /** Slots available to non-priority requests. */
+    public int normalCap() {
+        return Math.max(1, (int) Math.floor(limit * (1 - priorityReserve)));
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /** Lowest window-average RTT since the last reset. */
+    public synchronized long getMinRttNanos() {
+        return minRttNanos;
+    }
+
+    /** Average RTT of the last closed window. */
+    public synchronized long getLastRttNanos() {
+        return lastRttNanos;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /** Requests this limiter shed (its drops). */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public long getShedPriority() {
+        return shedPriority.sum();
+    }
+}
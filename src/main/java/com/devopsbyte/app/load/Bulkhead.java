@@ -0,0 +1,115 @@
+package com.devopsbyte.app.load;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrency lane: at most maxConcurrent requests run, at most maxQueue more wait up
+ * to maxWaitMillis for a slot, and everything beyond that is rejected at once.
+ *
+ * A waiting request still holds its Tomcat worker thread, so the sum of
+ * (maxConcurrent + maxQueue) over all lanes must stay below the connector's maxThreads;
+ * the remainder is what unlaned traffic (static pages) can always use.
+ */
+public final class Bulkhead {
+
+    public enum Outcome { ADMITTED, REJECTED_QUEUE_FULL, REJECTED_TIMEOUT }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        if (maxConcurrent < 1 || maxQueue < 0 || maxWaitMillis < 0) {
+            throw new IllegalArgumentException("invalid bulkhead limits for " + name);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Try to enter the lane; release() must follow an ADMITTED outcome.
+     *
+     * @throws InterruptedException if interrupted while queued (no permit is held).
+     */
+    public Outcome acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return Outcome.ADMITTED;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return Outcome.REJECTED_QUEUE_FULL;
+        }
+        long start = System.nanoTime();
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                admitted.increment();
+                return Outcome.ADMITTED;
+            }
+            rejectedTimeout.increment();
+            return Outcome.REJECTED_TIMEOUT;
+        } finally {
+            queueWaitNanos.add(System.nanoTime() - start);
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return Math.max(0, queued.get());
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejectedQueueFull() {
+        return rejectedQueueFull.sum();
+    }
+
+    public long getRejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+
+    /** Total time requests spent queued, admitted or not. */
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+}
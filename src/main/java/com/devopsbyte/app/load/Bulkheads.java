@@ -0,0 +1,101 @@
+package com.devopsbyte.app.load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The webapp's execution lanes and the route -> lane mapping enforced by BulkheadFilter.
+ *
+ * Lanes (limits from env BULKHEAD_{LANE}_CONCURRENCY / _QUEUE / _WAIT_MS):
+ *  - PROBES     /health, /api/health                      (16 running, 16 queued, 250 ms)
+ *  - API_READS  other /api/* endpoints                    (32 running, 32 queued, 500 ms)
+ *  - DB_WRITERS /hello, /api/version/* (write telemetry)  (40 running, 40 queued, 1000 ms)
+ *
+ * Everything else (index, /versionN pages) runs unlaned. With the defaults the lanes can hold at
+ * most 176 worker threads, leaving headroom under Tomcat's default maxThreads=200; when the
+ * DB is slow, DB_WRITERS fills and rejects while probes and static pages keep their threads.
+ */
+public final class Bulkheads {
+
+    public enum Lane {
+        PROBES(16, 16, 250),
+        API_READS(32, 32, 500),
+        DB_WRITERS(40, 40, 1000);
+
+        private final int defaultConcurrency;
+        private final int defaultQueue;
+        private final long defaultWaitMillis;
+
+        Lane(int defaultConcurrency, int defaultQueue, long defaultWaitMillis) {
+            this.defaultConcurrency = defaultConcurrency;
+            this.defaultQueue = defaultQueue;
+            this.defaultWaitMillis = defaultWaitMillis;
+        }
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Map<Lane, Bulkhead> lanes;
+
+    static {
+        Map<Lane, Bulkhead> m = new EnumMap<>(Lane.class);
+        for (Lane lane : Lane.values()) {
+            String prefix = "BULKHEAD_" + lane.name() + "_";
+            m.put(lane, new Bulkhead(lane.label(),
+                    (int) envLong(prefix + "CONCURRENCY", lane.defaultConcurrency, 1),
+                    (int) envLong(prefix + "QUEUE", lane.defaultQueue, 0),
+                    envLong(prefix + "WAIT_MS", lane.defaultWaitMillis, 0)));
+        }
+        lanes = Collections.unmodifiableMap(m);
+    }
+
+    private Bulkheads() {
+        // utility
+    }
+
+    /**
+     * Lane for a context-relative path (servlet path + path info), or null for unlaned routes.
+     */
+    public static Lane laneFor(String path) {
+        if (path == null) {
+            return null;
+        }
+        if (path.equals("/health") || path.equals("/api/health")) {
+            return Lane.PROBES;
+        }
+        if (path.equals("/hello") || path.equals("/api/version") || path.startsWith("/api/version/")) {
+            return Lane.DB_WRITERS;
+        }
+        if (path.startsWith("/api/")) {
+            return Lane.API_READS;
+        }
+        return null;
+    }
+
+    public static Bulkhead get(Lane lane) {
+        return lanes.get(lane);
+    }
+
+    public static Map<Lane, Bulkhead> all() {
+        return lanes;
+    }
+
+    private static long envLong(String name, long def, long min) {
+        String raw = System.getenv(name);
+        if (raw != null) {
+            try {
+                long parsed = Long.parseLong(raw.trim());
+                if (parsed >= min) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return def;
+    }
+}
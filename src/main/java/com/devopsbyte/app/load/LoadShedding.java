@@ -0,0 +1,134 @@
+package com.devopsbyte.app.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The webapp's adaptive concurrency limiters and which routes they treat as priority.
+ *
+ * Each limited Bulkheads lane gets its own AdaptiveLimiter, so a lane's limit follows that
+ * lane's latency only: API_READS and DB_WRITERS are limited, while PROBES and unlaned routes
+ * (index, /versionN pages) never pass through a limiter and are never shed by it.
+ *
+ * Configuration (env, applied to each limited lane):
+ *  - LIMITER_ENABLED            true/false (default true)
+ *  - LIMITER_INITIAL / _MIN / _MAX   in-flight limit bounds (default 50 / 8 / 180)
+ *  - LIMITER_TOLERANCE          window latency up to this multiple of the minimum counts as
+ *                               healthy (default 2.0)
+ *  - LIMITER_PRIORITY_RESERVE   share of a lane's limit only priority routes may use (default 0.2)
+ *  - LIMITER_PRIORITY_ROUTES    comma-separated routes; "/x/*" matches /x and below
+ *                               (default none, e.g. "/api/version/*")
+ *
+ * The reserve only applies when priority routes are configured; with none (the default) it is 0,
+ * so a lane admits up to its full limit instead of shedding at 80% of it.
+ *
+ * The default maximum stays under Tomcat's maxThreads=200 so shedding starts before the
+ * connector's accept queue does.
+ */
+public final class LoadShedding {
+
+    private static final String DEFAULT_PRIORITY_ROUTES = "";
+    private static final long MIN_RTT_RESET_SECONDS = 30;
+    private static final double SMOOTHING = 0.2;
+    private static final long WINDOW_MILLIS = 100;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final Bulkheads.Lane[] LIMITED_LANES = {Bulkheads.Lane.API_READS, Bulkheads.Lane.DB_WRITERS};
+
+    private static final boolean enabled;
+    private static final Map<Bulkheads.Lane, AdaptiveLimiter> limiters;
+    private static final List<String> priorityRoutes;
+
+    static {
+        String rawEnabled = System.getenv("LIMITER_ENABLED");
+        enabled = rawEnabled == null || !rawEnabled.trim().equalsIgnoreCase("false");
+
+        int min = (int) envDouble("LIMITER_MIN", 8, 1);
+        int max = Math.max(min, (int) envDouble("LIMITER_MAX", 180, 1));
+        int initial = (int) envDouble("LIMITER_INITIAL", 50, 1);
+        double tolerance = envDouble("LIMITER_TOLERANCE", 2.0, 1.0);
+        String rawRoutes = System.getenv("LIMITER_PRIORITY_ROUTES");
+        priorityRoutes = parseRoutes(rawRoutes == null ? DEFAULT_PRIORITY_ROUTES : rawRoutes);
+        double reserve = priorityRoutes.isEmpty() ? 0.0
+                : Math.min(0.9, envDouble("LIMITER_PRIORITY_RESERVE", 0.2, 0.0));
+        Map<Bulkheads.Lane, AdaptiveLimiter> m = new EnumMap<>(Bulkheads.Lane.class);
+        for (Bulkheads.Lane lane : LIMITED_LANES) {
+            m.put(lane, new AdaptiveLimiter(lane.label(), initial, min, max, tolerance, SMOOTHING, reserve,
+                    TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS), MIN_WINDOW_SAMPLES,
+                    TimeUnit.SECONDS.toNanos(MIN_RTT_RESET_SECONDS), System::nanoTime));
+        }
+        limiters = Collections.unmodifiableMap(m);
+    }
+
+    private LoadShedding() {
+        // utility
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The limiter for a lane, or null if the lane (or an unlaned route, lane == null) is not limited. */
+    public static AdaptiveLimiter limiterFor(Bulkheads.Lane lane) {
+        return lane == null ? null : limiters.get(lane);
+    }
+
+    public static Map<Bulkheads.Lane, AdaptiveLimiter> limiters() {
+        return limiters;
+    }
+
+    public static List<String> priorityRoutes() {
+        return priorityRoutes;
+    }
+
+    /** Whether a context-relative path (servlet path + path info) is a priority route. */
+    public static boolean isPriority(String path) {
+        return matchesAny(priorityRoutes, path);
+    }
+
+    static boolean matchesAny(List<String> routes, String path) {
+        if (path == null) {
+            return false;
+        }
+        for (String route : routes) {
+            if (route.endsWith("/*")) {
+                String base = route.substring(0, route.length() - 2);
+                if (path.equals(base) || path.startsWith(base + "/")) {
+                    return true;
+                }
+            } else if (path.equals(route)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> parseRoutes(String raw) {
+        List<String> routes = new ArrayList<>();
+        for (String part : raw.split(",")) {
+            String route = part.trim();
+            if (route.startsWith("/")) {
+                routes.add(route);
+            }
+        }
+        return Collections.unmodifiableList(routes);
+    }
+
+    private static double envDouble(String name, double def, double min) {
+        String raw = System.getenv(name);
+        if (raw != null) {
+            try {
+                double parsed = Double.parseDouble(raw.trim());
+                if (parsed >= min) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return def;
+    }
+}
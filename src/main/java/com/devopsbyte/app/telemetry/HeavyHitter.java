@@ -0,0 +1,36 @@
+package com.devopsbyte.app.telemetry;
+
+/**
+ * One top-K entry. The true frequency lies in [count - error, count].
+ */
+public final class HeavyHitter {
+
+    private final String item;
+    private final long count;
+    private final long error;
+
+    HeavyHitter(String item, long count, long error) {
+        this.item = item;
+        this.count = count;
+        this.error = error;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    /** Upper bound on the true frequency. */
+    public long getCount() {
+        return count;
+    }
+
+    /** Maximum overestimate contained in getCount(). */
+    public long getError() {
+        return error;
+    }
+
+    /** Lower bound on the true frequency. */
+    public long getGuaranteed() {
+        return count - error;
+    }
+}
@@ -0,0 +1,97 @@
+package com.devopsbyte.app.telemetry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide heavy-hitter trackers for user agents and client addresses per endpoint.
+ *
+ * Replaces GROUP BY scans over version_hit.user_agent / request_log.remote_addr for "who is
+ * driving traffic" questions. Memory is fixed: one WindowedTopK per (endpoint, dimension), each
+ * holding TOPK_CAPACITY counters (default 128) per minute and stripe (up to 4) for the last hour.
+ *
+ * Only the endpoints listed here are tracked; unknown endpoints are ignored.
+ */
+public final class HeavyHitters {
+
+    public static final String ENDPOINT_HELLO = "/hello";
+    public static final String ENDPOINT_API_VERSION = "/api/version";
+
+    public static final String DIM_USER_AGENT = "userAgent";
+    public static final String DIM_CLIENT = "client";
+
+    static final int DEFAULT_CAPACITY = 128;
+    private static final int MAX_ITEM_LENGTH = 256;
+    private static final String NONE = "(none)";
+
+    private static final int capacity;
+    private static final Map<String, Map<String, WindowedTopK>> trackers;
+
+    static {
+        capacity = parseCapacity(System.getenv("TOPK_CAPACITY"));
+        Map<String, Map<String, WindowedTopK>> byEndpoint = new LinkedHashMap<>();
+        for (String endpoint : new String[]{ENDPOINT_HELLO, ENDPOINT_API_VERSION}) {
+            Map<String, WindowedTopK> byDim = new LinkedHashMap<>();
+            byDim.put(DIM_USER_AGENT, new WindowedTopK(capacity));
+            byDim.put(DIM_CLIENT, new WindowedTopK(capacity));
+            byEndpoint.put(endpoint, Collections.unmodifiableMap(byDim));
+        }
+        trackers = Collections.unmodifiableMap(byEndpoint);
+    }
+
+    private HeavyHitters() {
+        // utility
+    }
+
+    /** Record one request; never throws. */
+    public static void record(String endpoint, String userAgent, String remoteAddr) {
+        Map<String, WindowedTopK> byDim = trackers.get(endpoint);
+        if (byDim == null) {
+            return;
+        }
+        byDim.get(DIM_USER_AGENT).record(normalize(userAgent));
+        byDim.get(DIM_CLIENT).record(normalize(remoteAddr));
+    }
+
+    /** Tracker for the endpoint/dimension pair, or null when it is not tracked. */
+    public static WindowedTopK get(String endpoint, String dimension) {
+        Map<String, WindowedTopK> byDim = trackers.get(endpoint);
+        return byDim == null ? null : byDim.get(dimension);
+    }
+
+    public static Set<String> endpoints() {
+        return trackers.keySet();
+    }
+
+    public static Set<String> dimensions() {
+        return trackers.get(ENDPOINT_HELLO).keySet();
+    }
+
+    public static int getCapacity() {
+        return capacity;
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        String v = value.trim();
+        return v.length() > MAX_ITEM_LENGTH ? v.substring(0, MAX_ITEM_LENGTH) : v;
+    }
+
+    private static int parseCapacity(String raw) {
+        if (raw != null) {
+            try {
+                int parsed = Integer.parseInt(raw.trim());
+                if (parsed > 0 && parsed <= 10_000) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return DEFAULT_CAPACITY;
+    }
+}
@@ -0,0 +1,140 @@
+package com.devopsbyte.app.telemetry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary (Metwally et al.) over a fixed number of counters.
+ *
+ * Guarantees, for a stream of N items and capacity m:
+ *  - every item with true frequency > N/m is monitored;
+ *  - a monitored item's count never underestimates, and overestimates by at most its error.
+ *
+ * Counters live in a min-heap ordered by count, so offer() is O(log m) and memory never grows
+ * past m entries. Not thread-safe; WindowedTopK serialises access.
+ */
+final class SpaceSaving {
+
+    private final int capacity;
+    private final String[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+    private long total;
+
+    SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        this.capacity = capacity;
+        this.items = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String item) {
+        total++;
+        Integer slot = index.get(item);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(slot);
+            return;
+        }
+        if (size < capacity) {
+            int i = size++;
+            items[i] = item;
+            counts[i] = 1;
+            errors[i] = 0;
+            index.put(item, i);
+            siftUp(i);
+            return;
+        }
+        // evict the minimum; the newcomer inherits its count as error
+        long min = counts[0];
+        index.remove(items[0]);
+        items[0] = item;
+        counts[0] = min + 1;
+        errors[0] = min;
+        index.put(item, 0);
+        siftDown(0);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i] = null;
+        }
+        index.clear();
+        size = 0;
+        total = 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /** Largest count an unmonitored item could have: the minimum counter once full, else 0. */
+    long unmonitoredBound() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    /** Copy of the monitored counters, unordered. */
+    List<HeavyHitter> entries() {
+        List<HeavyHitter> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(new HeavyHitter(items[i], counts[i], errors[i]));
+        }
+        return out;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && counts[right] < counts[left]) {
+                smallest = right;
+            }
+            if (counts[i] <= counts[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String item = items[a];
+        long count = counts[a];
+        long error = errors[a];
+        items[a] = items[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        items[b] = item;
+        counts[b] = count;
+        errors[b] = error;
+        index.put(items[a], a);
+        index.put(items[b], b);
+    }
+}
@@ -0,0 +1,48 @@
+package com.devopsbyte.app.telemetry;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Result of a WindowedTopK query, with the bounds needed to interpret the counts. */
+public final class TopKSnapshot {
+
+    private final int windowMinutes;
+    private final long total;
+    private final int capacityPerMinute;
+    private final long maxUnmonitoredCount;
+    private final List<HeavyHitter> items;
+
+    TopKSnapshot(int windowMinutes, long total, int capacityPerMinute, long maxUnmonitoredCount,
+                 List<HeavyHitter> items) {
+        this.windowMinutes = windowMinutes;
+        this.total = total;
+        this.capacityPerMinute = capacityPerMinute;
+        this.maxUnmonitoredCount = maxUnmonitoredCount;
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    /** Number of events recorded in the window. */
+    public long getTotal() {
+        return total;
+    }
+
+    public int getCapacityPerMinute() {
+        return capacityPerMinute;
+    }
+
+    /**
+     * Upper bound on the count of any item missing from getItems(); every item whose
+     * true count exceeds it is listed (given k is large enough).
+     */
+    public long getMaxUnmonitoredCount() {
+        return maxUnmonitoredCount;
+    }
+
+    public List<HeavyHitter> getItems() {
+        return items;
+    }
+}
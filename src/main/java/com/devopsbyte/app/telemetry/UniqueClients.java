@@ -0,0 +1,112 @@
+package com.devopsbyte.app.telemetry;
+
+import com.devopsbyte.app.db.DbWriteResult;
+import com.devopsbyte.app.db.HllSketchDao;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide distinct-count sketches of client addresses and user agents per endpoint.
+ *
+ * Replaces COUNT(DISTINCT ...) scans over request_log / version_hit. Each tracked
+ * (endpoint, dimension) pair has a WindowedHll with per-minute (last hour) and per-hour
+ * (last day) windows. HLL_PRECISION (4..16, default 12) trades memory for accuracy:
+ * every window costs 2^p bytes, standard error is ~1.04/sqrt(2^p).
+ *
+ * flush() upserts changed windows into hll_sketch so other nodes and longer ranges can be merged.
+ */
+public final class UniqueClients {
+
+    static final int DEFAULT_PRECISION = 12;
+
+    private static final int precision;
+    private static final Map<String, Map<String, WindowedHll>> sketches;
+
+    static {
+        precision = parsePrecision(System.getenv("HLL_PRECISION"));
+        Map<String, Map<String, WindowedHll>> byEndpoint = new LinkedHashMap<>();
+        for (String endpoint : HeavyHitters.endpoints()) {
+            Map<String, WindowedHll> byDim = new LinkedHashMap<>();
+            for (String dimension : HeavyHitters.dimensions()) {
+                byDim.put(dimension, new WindowedHll(precision));
+            }
+            byEndpoint.put(endpoint, Collections.unmodifiableMap(byDim));
+        }
+        sketches = Collections.unmodifiableMap(byEndpoint);
+    }
+
+    private UniqueClients() {
+        // utility
+    }
+
+    /** Record one request; never throws. Same endpoints and dimensions as HeavyHitters. */
+    public static void record(String endpoint, String userAgent, String remoteAddr) {
+        Map<String, WindowedHll> byDim = sketches.get(endpoint);
+        if (byDim == null) {
+            return;
+        }
+        byDim.get(HeavyHitters.DIM_USER_AGENT).record(userAgent == null ? "" : userAgent);
+        byDim.get(HeavyHitters.DIM_CLIENT).record(remoteAddr == null ? "" : remoteAddr);
+    }
+
+    /** Sketches for the endpoint/dimension pair, or null when it is not tracked. */
+    public static WindowedHll get(String endpoint, String dimension) {
+        Map<String, WindowedHll> byDim = sketches.get(endpoint);
+        return byDim == null ? null : byDim.get(dimension);
+    }
+
+    public static int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Upsert every window changed since the last flush. Stops at the first failed write and
+     * keeps the remaining windows dirty, so an unavailable DB costs one attempt per flush.
+     *
+     * @return the first failure, or ok/disabled.
+     */
+    public static DbWriteResult flush(HllSketchDao dao, String nodeId) {
+        DbWriteResult result = DbWriteResult.ok();
+        for (Map.Entry<String, Map<String, WindowedHll>> byEndpoint : sketches.entrySet()) {
+            for (Map.Entry<String, WindowedHll> byDim : byEndpoint.getValue().entrySet()) {
+                WindowedHll hll = byDim.getValue();
+                for (WindowedHll.Window w : hll.takeDirty()) {
+                    if (written(result)) {
+                        result = dao.upsert(nodeId, byEndpoint.getKey(), byDim.getKey(), w.getGranularity().label(),
+                                Instant.ofEpochMilli(w.getStartMillis()), precision, w.getSketch().toBytes());
+                    }
+                    if (!written(result)) {
+                        hll.markDirty(w);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean written(DbWriteResult result) {
+        return result.isEnabled() && result.isOk();
+    }
+
+    public static Set<String> endpoints() {
+        return sketches.keySet();
+    }
+
+    private static int parsePrecision(String raw) {
+        if (raw != null) {
+            try {
+                int parsed = Integer.parseInt(raw.trim());
+                if (parsed >= HyperLogLog.MIN_PRECISION && parsed <= HyperLogLog.MAX_PRECISION) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return DEFAULT_PRECISION;
+    }
+}
@@ -0,0 +1,176 @@
+package com.devopsbyte.app.telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Distinct-count sketches for one (endpoint, dimension) pair, per minute and per hour.
+ *
+ * Each granularity is a ring of windows in an AtomicReferenceArray. A thread that finds a stale
+ * window in its slot installs a fresh one with CAS; registers are raised with CAS inside
+ * HyperLogLog. Nothing on the record path takes a lock.
+ *
+ * Windows changed since the last flush are marked dirty so UniqueClients.flush() only writes
+ * what moved.
+ */
+public final class WindowedHll {
+
+    public enum Granularity {
+        MINUTE(60_000L, 60),
+        HOUR(3_600_000L, 24);
+
+        private final long millis;
+        private final int retained;
+
+        Granularity(long millis, int retained) {
+            this.millis = millis;
+            this.retained = retained;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /** How many windows of this granularity are kept in memory. */
+        public int getRetained() {
+            return retained;
+        }
+
+        public String label() {
+            return name().toLowerCase();
+        }
+
+        /** "minute"/"hour" (case-insensitive), or null. */
+        public static Granularity parse(String raw) {
+            for (Granularity g : values()) {
+                if (g.label().equalsIgnoreCase(raw)) {
+                    return g;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** One time window's sketch. */
+    public static final class Window {
+        private final Granularity granularity;
+        private final long startMillis;
+        private final HyperLogLog sketch;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        Window(Granularity granularity, long startMillis, HyperLogLog sketch) {
+            this.granularity = granularity;
+            this.startMillis = startMillis;
+            this.sketch = sketch;
+        }
+
+        public Granularity getGranularity() {
+            return granularity;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public HyperLogLog getSketch() {
+            return sketch;
+        }
+    }
+
+    private final int precision;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Window> minutes = new AtomicReferenceArray<>(Granularity.MINUTE.retained);
+    private final AtomicReferenceArray<Window> hours = new AtomicReferenceArray<>(Granularity.HOUR.retained);
+
+    public WindowedHll(int precision) {
+        this(precision, System::currentTimeMillis);
+    }
+
+    WindowedHll(int precision, LongSupplier clock) {
+        new HyperLogLog(precision); // validate eagerly
+        this.precision = precision;
+        this.clock = clock;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void record(String item) {
+        long hash = HyperLogLog.hash(item);
+        long now = clock.getAsLong();
+        offer(minutes, Granularity.MINUTE, now, hash);
+        offer(hours, Granularity.HOUR, now, hash);
+    }
+
+    /**
+     * Union of the most recent `count` windows (clamped to what is retained), including the
+     * current partial one.
+     */
+    public HyperLogLog union(Granularity g, int count) {
+        int n = Math.max(1, Math.min(g.retained, count));
+        long currentStart = windowStart(g, clock.getAsLong());
+        long oldestStart = currentStart - (n - 1) * g.millis;
+        HyperLogLog merged = new HyperLogLog(precision);
+        AtomicReferenceArray<Window> ring = ring(g);
+        for (int i = 0; i < ring.length(); i++) {
+            Window w = ring.get(i);
+            if (w != null && w.startMillis >= oldestStart && w.startMillis <= currentStart) {
+                merged.merge(w.sketch);
+            }
+        }
+        return merged;
+    }
+
+    /** Windows changed since the previous call; their dirty flags are cleared. */
+    public List<Window> takeDirty() {
+        List<Window> out = new ArrayList<>();
+        for (Granularity g : Granularity.values()) {
+            AtomicReferenceArray<Window> ring = ring(g);
+            for (int i = 0; i < ring.length(); i++) {
+                Window w = ring.get(i);
+                if (w != null && w.dirty.getAndSet(false)) {
+                    out.add(w);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Re-flag a window whose flush failed so the next flush retries it. */
+    public void markDirty(Window window) {
+        window.dirty.set(true);
+    }
+
+    private void offer(AtomicReferenceArray<Window> ring, Granularity g, long now, long hash) {
+        long start = windowStart(g, now);
+        int slot = (int) Math.floorMod(start / g.millis, (long) ring.length());
+        while (true) {
+            Window w = ring.get(slot);
+            if (w == null || w.startMillis < start) {
+                Window fresh = new Window(g, start, new HyperLogLog(precision));
+                if (!ring.compareAndSet(slot, w, fresh)) {
+                    continue; // another thread rotated the slot first
+                }
+                w = fresh;
+            } else if (w.startMillis > start) {
+                return; // clock stepped back across a window boundary; drop the sample
+            }
+            if (w.sketch.offerHash(hash)) {
+                w.dirty.set(true);
+            }
+            return;
+        }
+    }
+
+    private AtomicReferenceArray<Window> ring(Granularity g) {
+        return g == Granularity.MINUTE ? minutes : hours;
+    }
+
+    private static long windowStart(Granularity g, long millis) {
+        return millis - Math.floorMod(millis, g.millis);
+    }
+}
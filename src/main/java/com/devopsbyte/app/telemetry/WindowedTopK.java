@@ -0,0 +1,130 @@
+package com.devopsbyte.app.telemetry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window top-K over a stream of strings, in fixed memory.
+ *
+ * Time is cut into one-minute slots kept in a ring of MAX_WINDOW_MINUTES; a slot is reset when
+ * the ring wraps onto it. Each slot is striped: record() offers to the Space-Saving summary of the
+ * calling thread's stripe, so concurrent requests rarely contend on one lock. A query for the last
+ * w minutes merges every stripe of the w most recent slots (the current one is partial), carrying
+ * the per-summary error bounds through the merge.
+ *
+ * Thread-safe: each stripe is guarded by its own monitor.
+ */
+public final class WindowedTopK {
+
+    public static final int MAX_WINDOW_MINUTES = 60;
+    static final long SLOT_MILLIS = 60_000L;
+    static final int MAX_STRIPES = 4;
+
+    private final Slot[][] slots = new Slot[MAX_WINDOW_MINUTES][];
+    private final int stripeMask;
+    private final LongSupplier clock;
+
+    public WindowedTopK(int capacityPerMinute) {
+        this(capacityPerMinute, defaultStripes(), System::currentTimeMillis);
+    }
+
+    WindowedTopK(int capacityPerMinute, LongSupplier clock) {
+        this(capacityPerMinute, 1, clock);
+    }
+
+    /** stripes must be a power of two. */
+    WindowedTopK(int capacityPerMinute, int stripes, LongSupplier clock) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        this.stripeMask = stripes - 1;
+        this.clock = clock;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot[stripes];
+            for (int j = 0; j < stripes; j++) {
+                slots[i][j] = new Slot(capacityPerMinute);
+            }
+        }
+    }
+
+    private static int defaultStripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, cpus)));
+    }
+
+    public void record(String item) {
+        long minute = clock.getAsLong() / SLOT_MILLIS;
+        // request threads are pooled, so a thread keeps hitting the same stripe
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        Slot slot = slots[(int) (minute % slots.length)][stripe];
+        synchronized (slot) {
+            if (slot.minute != minute) {
+                slot.summary.clear();
+                slot.minute = minute;
+            }
+            slot.summary.offer(item);
+        }
+    }
+
+    /**
+     * Top k items over the last windowMinutes minutes (clamped to 1..MAX_WINDOW_MINUTES),
+     * ordered by estimated count.
+     */
+    public TopKSnapshot top(int k, int windowMinutes) {
+        int window = Math.max(1, Math.min(MAX_WINDOW_MINUTES, windowMinutes));
+        long now = clock.getAsLong() / SLOT_MILLIS;
+
+        Map<String, long[]> merged = new HashMap<>(); // item -> {count, guaranteed, boundWherePresent}
+        long total = 0;
+        long boundSum = 0;
+        int capacity = 0;
+
+        for (long minute = now - window + 1; minute <= now; minute++) {
+            for (Slot slot : slots[(int) (Math.floorMod(minute, (long) slots.length))]) {
+                List<HeavyHitter> entries;
+                long bound;
+                synchronized (slot) {
+                    capacity = slot.summary.capacity();
+                    if (slot.minute != minute) {
+                        continue;
+                    }
+                    entries = slot.summary.entries();
+                    bound = slot.summary.unmonitoredBound();
+                    total += slot.summary.total();
+                }
+                boundSum += bound;
+                for (HeavyHitter h : entries) {
+                    long[] acc = merged.computeIfAbsent(h.getItem(), x -> new long[3]);
+                    acc[0] += h.getCount();
+                    acc[1] += h.getGuaranteed();
+                    acc[2] += bound;
+                }
+            }
+        }
+
+        List<HeavyHitter> ranked = new ArrayList<>(merged.size());
+        for (Map.Entry<String, long[]> e : merged.entrySet()) {
+            long[] acc = e.getValue();
+            // in summaries where the item was not monitored it may still have had up to that summary's bound
+            long upper = acc[0] + (boundSum - acc[2]);
+            ranked.add(new HeavyHitter(e.getKey(), upper, upper - acc[1]));
+        }
+        ranked.sort(Comparator.comparingLong(HeavyHitter::getCount).reversed()
+                .thenComparing(HeavyHitter::getItem));
+        List<HeavyHitter> top = ranked.size() > k ? new ArrayList<>(ranked.subList(0, Math.max(0, k))) : ranked;
+        return new TopKSnapshot(window, total, capacity, boundSum, top);
+    }
+
+    private static final class Slot {
+        final SpaceSaving summary;
+        long minute = Long.MIN_VALUE;
+
+        Slot(int capacity) {
+            this.summary = new SpaceSaving(capacity);
+        }
+    }
+}
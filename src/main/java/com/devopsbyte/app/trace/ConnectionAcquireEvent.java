@@ -0,0 +1,18 @@
+package com.devopsbyte.app.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Opening a JDBC connection to a shard (DbShard.openConnection). */
+@Name("com.devopsbyte.hellowar.ConnectionAcquire")
+@Label("DB Connection Acquire")
+public class ConnectionAcquireEvent extends TracedEvent {
+
+    @Label("Shard")
+    public int shard;
+
+    @Override
+    protected Phase phase() {
+        return Phase.DB_CONNECT;
+    }
+}
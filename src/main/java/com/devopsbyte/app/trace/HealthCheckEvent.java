@@ -0,0 +1,18 @@
+package com.devopsbyte.app.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Validating one shard for a health report (DbHealth); includes opening its connection. */
+@Name("com.devopsbyte.hellowar.HealthCheck")
+@Label("DB Health Check")
+public class HealthCheckEvent extends TracedEvent {
+
+    @Label("Shard")
+    public int shard;
+
+    @Override
+    protected Phase phase() {
+        return Phase.HEALTH_CHECK;
+    }
+}
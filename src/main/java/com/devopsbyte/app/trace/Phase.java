@@ -0,0 +1,22 @@
+package com.devopsbyte.app.trace;
+
+/**
+ * Request phases timed by RequestTrace and reported in the Server-Timing header.
+ * Phases may nest (a health check includes the connections it opens).
+ */
+public enum Phase {
+    DB_CONNECT("db-connect"),
+    DB_STATEMENT("db-exec"),
+    HEALTH_CHECK("db-health");
+
+    private final String metricName;
+
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /** Server-Timing metric name. */
+    public String metricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,133 @@
+package com.devopsbyte.app.trace;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-request timing context bound to the handling thread by TracingFilter.
+ *
+ * Besides the DB phases, the request is split at the first body write: "handler" is the time
+ * before it (request processing) and "response" the time after it (building and writing the
+ * body, plus anything a servlet does after writing, such as /hello's request_log insert).
+ *
+ * DB code adds phase time through TracedEvent.finish(); outside a request (background
+ * telemetry threads) there is no current trace and nothing is accumulated. Work a request hands
+ * to other threads (scatter/gather shard reads) runs under attach()/restore() so it is counted
+ * too; shards run concurrently, so a DB phase is the time summed over shards and can exceed
+ * the request's wall-clock total.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String route;
+    private final long startNanos;
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private volatile String requestId;
+    private long responseStartNanos;
+
+    private RequestTrace(String route, long startNanos) {
+        this.route = route;
+        this.startNanos = startNanos;
+    }
+
+    /** Bind a new trace to the current thread; end() must follow. */
+    public static RequestTrace begin(String route) {
+        RequestTrace trace = new RequestTrace(route, System.nanoTime());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Bind a trace captured on the request thread to the current worker thread; pass the
+     * returned previous binding to restore() when the work is done. A null trace unbinds.
+     */
+    public static RequestTrace attach(RequestTrace trace) {
+        RequestTrace previous = CURRENT.get();
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+        return previous;
+    }
+
+    /** Undo attach(), putting back the binding it returned. */
+    public static void restore(RequestTrace previous) {
+        attach(previous);
+    }
+
+    /** The current thread's trace, or null outside request handling. */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /** Record the request id the endpoint answers with, so events can carry it. */
+    public static void tagRequestId(String requestId) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.requestId = requestId;
+        }
+    }
+
+    /** Mark the first body write; later calls are ignored. */
+    public void markResponseStart() {
+        if (responseStartNanos == 0) {
+            responseStartNanos = System.nanoTime();
+        }
+    }
+
+    /** Time spent after the first body write, 0 if nothing was written. */
+    public long responseNanos() {
+        return responseStartNanos == 0 ? 0 : System.nanoTime() - responseStartNanos;
+    }
+
+    void add(Phase phase, long nanos) {
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing value: every DB phase that took time, the handler/response split, then the
+     * total so far, e.g.
+     * {@code db-connect;dur=1.204, db-exec;dur=0.381, handler;dur=2.310, response;dur=0.640, total;dur=2.950}.
+     */
+    public String serverTiming() {
+        long now = System.nanoTime();
+        long total = now - startNanos;
+        long response = responseStartNanos == 0 ? 0 : now - responseStartNanos;
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            long nanos = phaseNanos.get(phase.ordinal());
+            if (nanos > 0) {
+                appendMetric(sb, phase.metricName(), nanos).append(", ");
+            }
+        }
+        appendMetric(sb, "handler", total - response).append(", ");
+        appendMetric(sb, "response", response).append(", ");
+        return appendMetric(sb, "total", total).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder sb, String name, long nanos) {
+        return sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
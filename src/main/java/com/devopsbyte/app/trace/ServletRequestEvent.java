@@ -0,0 +1,31 @@
+package com.devopsbyte.app.trace;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** One request through the filter chain, committed by TracingFilter. */
+@Name("com.devopsbyte.hellowar.ServletRequest")
+@Label("Servlet Request")
+public class ServletRequestEvent extends TracedEvent {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Time")
+    @Description("Time after the first body write: building and writing the response")
+    @Timespan
+    public long responseNanos;
+
+    @Override
+    protected Phase phase() {
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.devopsbyte.app.trace;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Executing one DAO SQL statement (see db.TracedStatements); queries exclude reading rows. */
+@Name("com.devopsbyte.hellowar.Statement")
+@Label("DB Statement")
+public class StatementEvent extends TracedEvent {
+
+    @Label("Statement")
+    public String statement;
+
+    @Override
+    protected Phase phase() {
+        return Phase.DB_STATEMENT;
+    }
+}
@@ -0,0 +1,55 @@
+package com.devopsbyte.app.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the app's JFR events: carries request id, route and outcome, and adds its duration
+ * to the current RequestTrace phase on finish().
+ *
+ * Usage: {@code ev.start(); try { ... ; ev.finish("ok"); } catch (...) { ev.finish("error"); ... }}
+ */
+@Category({"HelloWar"})
+@StackTrace(false)
+public abstract class TracedEvent extends Event {
+
+    @Label("Request Id")
+    String requestId;
+
+    @Label("Route")
+    @Description("Servlet mapping that handled the request, empty outside request handling")
+    String route;
+
+    @Label("Outcome")
+    String outcome;
+
+    private transient long startNanos;
+
+    public void start() {
+        startNanos = System.nanoTime();
+        begin();
+    }
+
+    public void finish(String outcome) {
+        end();
+        RequestTrace trace = RequestTrace.current();
+        Phase phase = phase();
+        if (trace != null && phase != null) {
+            trace.add(phase, System.nanoTime() - startNanos);
+        }
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            if (trace != null) {
+                if (requestId == null) requestId = trace.getRequestId();
+                route = trace.getRoute();
+            }
+            commit();
+        }
+    }
+
+    /** Request phase this event's time counts towards, or null. */
+    protected abstract Phase phase();
+}
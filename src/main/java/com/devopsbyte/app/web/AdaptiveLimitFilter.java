@@ -0,0 +1,55 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.load.AdaptiveLimiter;
+import com.devopsbyte.app.load.Bulkheads;
+import com.devopsbyte.app.load.LoadShedding;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Sheds requests beyond their lane's adaptive concurrency limit (see AdaptiveLimiter) with an
+ * immediate 503 + Retry-After, so latency stays bounded at the throughput the node actually
+ * sustains. Probes and unlaned routes pass straight through (LoadShedding.limiterFor).
+ * Registered between TracingFilter and BulkheadFilter by RequestFilterRegistration.
+ */
+public class AdaptiveLimitFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+
+        String path = ApiUtil.routePath(req);
+        AdaptiveLimiter limiter = LoadShedding.isEnabled() ? LoadShedding.limiterFor(Bulkheads.laneFor(path)) : null;
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire(LoadShedding.isPriority(path))) {
+            ApiUtil.writeUnavailable(req, resp, "Server overloaded: concurrency limit reached.", 1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // a 503 from further down (bulkhead rejection) says nothing about this lane's latency
+            if (completed && resp.getStatus() != HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+                limiter.onSuccess(System.nanoTime() - start);
+            } else {
+                limiter.onIgnore();
+            }
+        }
+    }
+}
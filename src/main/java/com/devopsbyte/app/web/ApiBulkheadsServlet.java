@@ -0,0 +1,51 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.load.Bulkhead;
+import com.devopsbyte.app.load.Bulkheads;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Per-lane bulkhead limits and counters for this node (/api/bulkheads -> /hellowar/api/bulkheads).
+ */
+@WebServlet(urlPatterns = {"/api/bulkheads"})
+public class ApiBulkheadsServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        StringBuilder lanes = new StringBuilder("[");
+        boolean first = true;
+        for (Bulkhead b : Bulkheads.all().values()) {
+            if (!first) lanes.append(',');
+            first = false;
+            lanes.append("{\"lane\":\"").append(ApiUtil.j(b.getName())).append('"')
+                    .append(",\"maxConcurrent\":").append(b.getMaxConcurrent())
+                    .append(",\"maxQueue\":").append(b.getMaxQueue())
+                    .append(",\"maxWaitMillis\":").append(b.getMaxWaitMillis())
+                    .append(",\"active\":").append(b.getActive())
+                    .append(",\"queued\":").append(b.getQueued())
+                    .append(",\"admitted\":").append(b.getAdmitted())
+                    .append(",\"rejectedQueueFull\":").append(b.getRejectedQueueFull())
+                    .append(",\"rejectedTimeout\":").append(b.getRejectedTimeout())
+                    .append(",\"queueWaitMillis\":").append(b.getQueueWaitNanos() / 1_000_000)
+                    .append('}');
+        }
+        lanes.append(']');
+
+        String body = "{"
+                + "\"lanes\":" + lanes + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+}
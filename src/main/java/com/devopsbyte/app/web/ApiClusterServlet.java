@@ -0,0 +1,94 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.NodeInfo;
+import com.devopsbyte.app.cluster.ClusterRegistry;
+import com.devopsbyte.app.cluster.ClusterView;
+import com.devopsbyte.app.db.DbWriteResult;
+import com.devopsbyte.app.db.NodeHeartbeat;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cluster-wide release view (/api/cluster -> /hellowar/api/cluster): which release is live on which
+ * node, from the heartbeat registry. Served from the cache ClusterRegistry refreshes in the
+ * background, so a request never touches the DB or other nodes.
+ */
+@WebServlet(urlPatterns = {"/api/cluster"})
+public class ApiClusterServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        ClusterView view = ClusterRegistry.current();
+        long sinceRefresh = Math.max(0, Duration.between(view.getRefreshedAt(), Instant.now()).getSeconds());
+        long staleAfter = ClusterRegistry.STALE_AFTER_BEATS * TelemetryLifecycle.heartbeatSeconds();
+
+        StringBuilder nodes = new StringBuilder("[");
+        Map<Integer, List<String>> releases = new TreeMap<>();
+        for (NodeHeartbeat n : view.getNodes()) {
+            long age = n.getAgeSeconds() + sinceRefresh;
+            boolean stale = age > staleAfter;
+            if (!stale) {
+                releases.computeIfAbsent(n.getReleaseNumber(), k -> new ArrayList<>()).add(n.getNodeId());
+            }
+            if (nodes.length() > 1) nodes.append(',');
+            nodes.append("{\"nodeId\":\"").append(ApiUtil.j(n.getNodeId())).append('"')
+                    .append(",\"appVersion\":\"").append(ApiUtil.j(n.getAppVersion())).append('"')
+                    .append(",\"releaseNumber\":").append(n.getReleaseNumber())
+                    .append(",\"health\":\"").append(ApiUtil.j(n.getHealth())).append('"')
+                    .append(",\"stale\":").append(stale)
+                    .append(",\"lastSeenSecondsAgo\":").append(age)
+                    .append(",\"inFlight\":").append(n.getInFlight())
+                    .append(",\"concurrencyLimit\":").append(n.getConcurrencyLimit())
+                    .append(",\"requestsTotal\":").append(n.getRequestsTotal())
+                    .append(",\"requestsShed\":").append(n.getRequestsShed())
+                    .append(",\"loadAverage\":").append(n.getLoadAverage() == null ? "null" : n.getLoadAverage().toString())
+                    .append(",\"startedAt\":\"").append(ApiUtil.j(n.getStartedAt().toString())).append('"')
+                    .append('}');
+        }
+        nodes.append(']');
+
+        StringBuilder releaseJson = new StringBuilder("[");
+        for (Map.Entry<Integer, List<String>> e : releases.entrySet()) {
+            if (releaseJson.length() > 1) releaseJson.append(',');
+            releaseJson.append("{\"releaseNumber\":").append(e.getKey()).append(",\"nodes\":[");
+            for (int i = 0; i < e.getValue().size(); i++) {
+                if (i > 0) releaseJson.append(',');
+                releaseJson.append('"').append(ApiUtil.j(e.getValue().get(i))).append('"');
+            }
+            releaseJson.append("]}");
+        }
+        releaseJson.append(']');
+
+        DbWriteResult db = view.getDb();
+        String body = "{"
+                + "\"self\":\"" + ApiUtil.j(NodeInfo.getNodeId()) + "\","
+                + "\"releases\":" + releaseJson + ","
+                + "\"nodes\":" + nodes + ","
+                + "\"refreshedAt\":\"" + ApiUtil.j(view.getRefreshedAt().toString()) + "\","
+                + "\"staleAfterSeconds\":" + staleAfter + ","
+                + "\"db\":{"
+                + "\"enabled\":" + (db.isEnabled() ? "true" : "false") + ","
+                + "\"ok\":" + (db.isOk() ? "true" : "false") + ","
+                + "\"warning\":" + (db.getWarning() == null ? "null" : ("\"" + ApiUtil.j(db.getWarning()) + "\""))
+                + "},"
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+}
@@ -0,0 +1,50 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.ErrorReporter;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Error counters collected by ErrorReporter on this node (/api/errors -> /hellowar/api/errors).
+ * Groups are listed most frequent first.
+ */
+@WebServlet(urlPatterns = {"/api/errors"})
+public class ApiErrorsServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        List<ErrorReporter.ErrorCount> counts = ErrorReporter.counts();
+        StringBuilder groups = new StringBuilder("[");
+        for (int i = 0; i < counts.size(); i++) {
+            ErrorReporter.ErrorCount c = counts.get(i);
+            if (i > 0) groups.append(',');
+            groups.append("{\"source\":\"").append(ApiUtil.j(c.getSource())).append('"')
+                    .append(",\"context\":\"").append(ApiUtil.j(c.getContext())).append('"')
+                    .append(",\"type\":").append(c.getType() == null ? "null" : "\"" + ApiUtil.j(c.getType()) + "\"")
+                    .append(",\"message\":").append(c.getMessage() == null ? "null" : "\"" + ApiUtil.j(c.getMessage()) + "\"")
+                    .append(",\"total\":").append(c.getTotal())
+                    .append(",\"lastSeen\":\"").append(Instant.ofEpochMilli(c.getLastSeenMillis())).append('"')
+                    .append('}');
+        }
+        groups.append(']');
+
+        String body = "{"
+                + "\"groups\":" + groups + ","
+                + "\"dropped\":" + ErrorReporter.droppedCount() + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Stable JSON health endpoint intended to be fronted by Nginx (/api/health -> /hellowar/api/health).
@@ -27,7 +28,8 @@ public class ApiHealthServlet extends HttpServlet {
         String appVersion = ReleaseInfo.getAppVersion();
         int releaseNumber = ReleaseInfo.getReleaseNumber();
 
-        DbWriteResult db = DbHealth.check();
+        List<DbWriteResult> shards = DbHealth.checkShards();
+        DbWriteResult db = shards.isEmpty() ? DbHealth.check() : DbHealth.summarize(shards);
 
         String warningsJson = warningsArray(db);
 
@@ -38,21 +40,39 @@ public class ApiHealthServlet extends HttpServlet {
                 + "\"releaseNumber\":" + releaseNumber + ","
                 + "\"timestamp\":\"" + ApiUtil.j(timestamp) + "\","
                 + "\"requestId\":\"" + ApiUtil.j(requestId) + "\","
-                + "\"db\":" + dbJson(db) + ","
+                + "\"db\":" + dbJson(db, shards) + ","
                 + "\"warnings\":" + warningsJson
                 + "}";
 
         ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
     }
 
-    private String dbJson(DbWriteResult db) {
+    private String dbJson(DbWriteResult db, List<DbWriteResult> shards) {
         return "{"
                 + "\"enabled\":" + (db.isEnabled() ? "true" : "false") + ","
                 + "\"ok\":" + (db.isOk() ? "true" : "false") + ","
-                + "\"warning\":" + (db.getWarning() == null ? "null" : ("\"" + ApiUtil.j(db.getWarning()) + "\""))
+                + "\"warning\":" + warningJson(db) + ","
+                + "\"shards\":" + shardsJson(shards)
                 + "}";
     }
 
+    private String shardsJson(List<DbWriteResult> shards) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < shards.size(); i++) {
+            DbWriteResult s = shards.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"shard\":").append(i)
+                    .append(",\"ok\":").append(s.isOk() ? "true" : "false")
+                    .append(",\"warning\":").append(warningJson(s))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String warningJson(DbWriteResult db) {
+        return db.getWarning() == null ? "null" : ("\"" + ApiUtil.j(db.getWarning()) + "\"");
+    }
+
     private String warningsArray(DbWriteResult db) {
         if (db.isEnabled() && !db.isOk() && db.getWarning() != null) {
             return "[\"" + ApiUtil.j(db.getWarning()) + "\"]";
@@ -0,0 +1,60 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.load.AdaptiveLimiter;
+import com.devopsbyte.app.load.LoadShedding;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Current adaptive concurrency limit and shed counters per lane for this node
+ * (/api/limiter -> /hellowar/api/limiter).
+ */
+@WebServlet(urlPatterns = {"/api/limiter"})
+public class ApiLimiterServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        StringBuilder lanes = new StringBuilder("[");
+        for (AdaptiveLimiter limiter : LoadShedding.limiters().values()) {
+            if (lanes.length() > 1) lanes.append(',');
+            lanes.append("{\"lane\":\"").append(ApiUtil.j(limiter.getName())).append('"')
+                    .append(",\"limit\":").append(limiter.getLimit())
+                    .append(",\"normalLimit\":").append(limiter.normalCap())
+                    .append(",\"minLimit\":").append(limiter.getMinLimit())
+                    .append(",\"maxLimit\":").append(limiter.getMaxLimit())
+                    .append(",\"inFlight\":").append(limiter.getInFlight())
+                    .append(",\"minRttMicros\":").append(limiter.getMinRttNanos() / 1_000)
+                    .append(",\"lastRttMicros\":").append(limiter.getLastRttNanos() / 1_000)
+                    .append(",\"admitted\":").append(limiter.getAdmitted())
+                    .append(",\"shed\":").append(limiter.getShed())
+                    .append(",\"shedPriority\":").append(limiter.getShedPriority())
+                    .append('}');
+        }
+        lanes.append(']');
+
+        StringBuilder routes = new StringBuilder("[");
+        for (String route : LoadShedding.priorityRoutes()) {
+            if (routes.length() > 1) routes.append(',');
+            routes.append('"').append(ApiUtil.j(route)).append('"');
+        }
+        routes.append(']');
+
+        String body = "{"
+                + "\"enabled\":" + LoadShedding.isEnabled() + ","
+                + "\"lanes\":" + lanes + ","
+                + "\"priorityRoutes\":" + routes + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+}
@@ -0,0 +1,123 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.VersionHitRollup;
+import com.devopsbyte.app.db.VersionHitRollupDao;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dashboard series of version hits per version and release (/api/rollup -> /hellowar/api/rollup).
+ *
+ * Query parameters (all optional):
+ *  - granularity: minute (default) or hour
+ *  - from, to:    ISO-8601 instants, e.g. 2025-11-10T21:00:00Z; default is the last 60 minutes
+ *                 (minute) or 24 hours (hour) up to now. Ranges are capped at 24 hours for
+ *                 minute buckets and 90 days for hour buckets.
+ *
+ * Served from the version_hit rollups plus the not-yet-materialised tail (VersionHitRollupDao).
+ */
+@WebServlet(urlPatterns = {"/api/rollup"})
+public class ApiRollupServlet extends HttpServlet {
+
+    private static final Duration MAX_MINUTE_RANGE = Duration.ofHours(24);
+    private static final Duration MAX_HOUR_RANGE = Duration.ofDays(90);
+
+    private final VersionHitRollupDao rollupDao = new VersionHitRollupDao();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        String granularity = req.getParameter("granularity");
+        if (granularity == null || granularity.isBlank()) {
+            granularity = VersionHitRollupDao.MINUTE;
+        }
+        granularity = granularity.trim().toLowerCase();
+        boolean hourly = VersionHitRollupDao.HOUR.equals(granularity);
+
+        Instant to;
+        Instant from;
+        try {
+            to = instantParam(req, "to", Instant.now());
+            from = instantParam(req, "from", to.minus(hourly ? Duration.ofHours(24) : Duration.ofMinutes(60)));
+        } catch (DateTimeParseException e) {
+            to = null;
+            from = null;
+        }
+
+        if ((!hourly && !VersionHitRollupDao.MINUTE.equals(granularity)) || from == null || !from.isBefore(to)
+                || Duration.between(from, to).compareTo(hourly ? MAX_HOUR_RANGE : MAX_MINUTE_RANGE) > 0) {
+            String body = "{"
+                    + "\"error\":\"Invalid query. Use granularity=minute|hour and ISO-8601 from < to"
+                    + " (at most 24h of minutes or 90d of hours)\","
+                    + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                    + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                    + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                    + "}";
+            ApiUtil.writeJson(resp, HttpServletResponse.SC_BAD_REQUEST, body);
+            return;
+        }
+
+        // align to whole buckets so edge buckets are complete
+        ChronoUnit unit = hourly ? ChronoUnit.HOURS : ChronoUnit.MINUTES;
+        Instant fromBucket = from.truncatedTo(unit);
+        Instant toBucket = to.truncatedTo(unit).plus(1, unit);
+
+        List<VersionHitRollup> rows = Collections.emptyList();
+        String warning = null;
+        if (!DatabaseManager.isDbUsable()) {
+            warning = "DB is not usable; no rollup data available.";
+        } else {
+            try {
+                rows = rollupDao.query(granularity, fromBucket, toBucket);
+            } catch (SQLException | RuntimeException e) {
+                warning = "Rollup query failed: " + e.getMessage();
+            }
+        }
+
+        String body = "{"
+                + "\"granularity\":\"" + ApiUtil.j(granularity) + "\","
+                + "\"from\":\"" + fromBucket + "\","
+                + "\"to\":\"" + toBucket + "\","
+                + "\"series\":" + seriesJson(rows) + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\","
+                + "\"warnings\":" + (warning == null ? "[]" : "[\"" + ApiUtil.j(warning) + "\"]")
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+
+    private String seriesJson(List<VersionHitRollup> rows) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < rows.size(); i++) {
+            VersionHitRollup r = rows.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"bucket\":\"").append(r.getBucketStart()).append('"')
+                    .append(",\"version\":").append(r.getVersion())
+                    .append(",\"releaseNumber\":").append(r.getReleaseNumber())
+                    .append(",\"hits\":").append(r.getHits())
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private Instant instantParam(HttpServletRequest req, String name, Instant def) {
+        String v = req.getParameter(name);
+        return (v == null || v.isBlank()) ? def : Instant.parse(v.trim());
+    }
+}
@@ -0,0 +1,102 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.telemetry.HeavyHitter;
+import com.devopsbyte.app.telemetry.HeavyHitters;
+import com.devopsbyte.app.telemetry.TopKSnapshot;
+import com.devopsbyte.app.telemetry.WindowedTopK;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * In-memory top-K of user agents / client addresses per endpoint (/api/top -> /hellowar/api/top).
+ *
+ * Query parameters (all optional):
+ *  - endpoint:  /api/version (default) or /hello
+ *  - dimension: userAgent (default) or client
+ *  - window:    minutes, 1..60 (default 5)
+ *  - k:         number of entries, 1..100 (default 10)
+ *
+ * Counts are Space-Saving estimates: the true count of each entry lies in [guaranteed, count].
+ * Served entirely from memory of this node; the database is never queried.
+ */
+@WebServlet(urlPatterns = {"/api/top"})
+public class ApiTopServlet extends HttpServlet {
+
+    private static final int MAX_K = 100;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        String endpoint = param(req, "endpoint", HeavyHitters.ENDPOINT_API_VERSION);
+        String dimension = param(req, "dimension", HeavyHitters.DIM_USER_AGENT);
+        int window = intParam(req, "window", 5);
+        int k = intParam(req, "k", 10);
+
+        WindowedTopK tracker = HeavyHitters.get(endpoint, dimension);
+        if (tracker == null || window < 1 || window > WindowedTopK.MAX_WINDOW_MINUTES || k < 1 || k > MAX_K) {
+            String body = "{"
+                    + "\"error\":\"Invalid query. Use endpoint=" + ApiUtil.j(String.join("|", HeavyHitters.endpoints()))
+                    + ", dimension=" + ApiUtil.j(String.join("|", HeavyHitters.dimensions()))
+                    + ", window=1.." + WindowedTopK.MAX_WINDOW_MINUTES + ", k=1.." + MAX_K + "\","
+                    + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                    + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                    + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                    + "}";
+            ApiUtil.writeJson(resp, HttpServletResponse.SC_BAD_REQUEST, body);
+            return;
+        }
+
+        TopKSnapshot top = tracker.top(k, window);
+
+        String body = "{"
+                + "\"endpoint\":\"" + ApiUtil.j(endpoint) + "\","
+                + "\"dimension\":\"" + ApiUtil.j(dimension) + "\","
+                + "\"windowMinutes\":" + top.getWindowMinutes() + ","
+                + "\"total\":" + top.getTotal() + ","
+                + "\"capacityPerMinute\":" + top.getCapacityPerMinute() + ","
+                + "\"maxUnlistedCount\":" + top.getMaxUnmonitoredCount() + ","
+                + "\"items\":" + itemsJson(top) + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+
+    private String itemsJson(TopKSnapshot top) {
+        StringBuilder sb = new StringBuilder("[");
+        boolean first = true;
+        for (HeavyHitter h : top.getItems()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"item\":\"").append(ApiUtil.j(h.getItem())).append('"')
+                    .append(",\"count\":").append(h.getCount())
+                    .append(",\"error\":").append(h.getError())
+                    .append(",\"guaranteed\":").append(h.getGuaranteed())
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String param(HttpServletRequest req, String name, String def) {
+        String v = req.getParameter(name);
+        return (v == null || v.isBlank()) ? def : v.trim();
+    }
+
+    private int intParam(HttpServletRequest req, String name, int def) {
+        String v = req.getParameter(name);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
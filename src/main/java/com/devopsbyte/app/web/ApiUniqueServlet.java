@@ -0,0 +1,138 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.HllSketchDao;
+import com.devopsbyte.app.telemetry.HeavyHitters;
+import com.devopsbyte.app.telemetry.HyperLogLog;
+import com.devopsbyte.app.telemetry.UniqueClients;
+import com.devopsbyte.app.telemetry.WindowedHll;
+import com.devopsbyte.app.telemetry.WindowedHll.Granularity;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distinct client / user-agent estimates per endpoint (/api/unique -> /hellowar/api/unique).
+ *
+ * Query parameters (all optional):
+ *  - endpoint:    /api/version (default) or /hello
+ *  - dimension:   client (default) or userAgent
+ *  - granularity: minute (default) or hour
+ *  - windows:     number of most recent windows to union (default 1, the current one)
+ *  - scope:       node (default, in-memory only) or cluster (also merges hll_sketch rows
+ *                 flushed by every node; allows ranges longer than this node retains)
+ *
+ * The estimate's relative standard error is reported alongside it.
+ */
+@WebServlet(urlPatterns = {"/api/unique"})
+public class ApiUniqueServlet extends HttpServlet {
+
+    private static final int MAX_CLUSTER_MINUTES = 24 * 60;
+    private static final int MAX_CLUSTER_HOURS = 31 * 24;
+
+    private final HllSketchDao hllSketchDao = new HllSketchDao();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String requestId = ApiUtil.newRequestId();
+        ApiUtil.setJsonHeaders(resp, requestId);
+
+        String endpoint = param(req, "endpoint", HeavyHitters.ENDPOINT_API_VERSION);
+        String dimension = param(req, "dimension", HeavyHitters.DIM_CLIENT);
+        Granularity granularity = Granularity.parse(param(req, "granularity", "minute"));
+        String scope = param(req, "scope", "node");
+        boolean cluster = "cluster".equals(scope);
+        int windows = intParam(req, "windows", 1);
+
+        WindowedHll sketches = UniqueClients.get(endpoint, dimension);
+        if (sketches == null || granularity == null || (!cluster && !"node".equals(scope))
+                || windows < 1 || windows > maxWindows(granularity, cluster)) {
+            String body = "{"
+                    + "\"error\":\"Invalid query. Use endpoint=" + ApiUtil.j(String.join("|", UniqueClients.endpoints()))
+                    + ", dimension=" + ApiUtil.j(String.join("|", HeavyHitters.dimensions()))
+                    + ", granularity=minute|hour, scope=node|cluster, windows=1..(60 minutes / 24 hours per node,"
+                    + " " + MAX_CLUSTER_MINUTES + " / " + MAX_CLUSTER_HOURS + " for cluster)\","
+                    + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                    + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                    + "\"requestId\":\"" + ApiUtil.j(requestId) + "\""
+                    + "}";
+            ApiUtil.writeJson(resp, HttpServletResponse.SC_BAD_REQUEST, body);
+            return;
+        }
+
+        HyperLogLog merged = sketches.union(granularity, windows);
+        String warning = null;
+        int storedSketches = 0;
+        if (cluster) {
+            if (!DatabaseManager.isDbUsable()) {
+                warning = "DB is not usable; estimate covers this node's memory only.";
+            } else {
+                long now = System.currentTimeMillis();
+                long currentStart = now - Math.floorMod(now, granularity.getMillis());
+                Instant from = Instant.ofEpochMilli(currentStart - (windows - 1) * granularity.getMillis());
+                try {
+                    List<byte[]> rows = hllSketchDao.loadRegisters(endpoint, dimension, granularity.label(),
+                            from, Instant.ofEpochMilli(currentStart));
+                    // parse everything first so a bad row cannot leave merged half-updated,
+                    // then merge at the coarsest precision any node stored
+                    List<HyperLogLog> stored = new ArrayList<>(rows.size());
+                    for (byte[] row : rows) {
+                        stored.add(HyperLogLog.fromBytes(row));
+                    }
+                    merged = HyperLogLog.union(merged, stored);
+                    storedSketches = rows.size();
+                } catch (SQLException | RuntimeException e) {
+                    warning = "Stored sketches unavailable; estimate covers this node's memory only: "
+                            + e.getMessage();
+                }
+            }
+        }
+
+        String body = "{"
+                + "\"endpoint\":\"" + ApiUtil.j(endpoint) + "\","
+                + "\"dimension\":\"" + ApiUtil.j(dimension) + "\","
+                + "\"granularity\":\"" + granularity.label() + "\","
+                + "\"windows\":" + windows + ","
+                + "\"scope\":\"" + ApiUtil.j(scope) + "\","
+                + "\"estimate\":" + merged.estimate() + ","
+                + "\"relativeStandardError\":" + String.format("%.4f", merged.relativeStandardError()) + ","
+                + "\"precision\":" + merged.getPrecision() + ","
+                + "\"storedSketches\":" + storedSketches + ","
+                + "\"route\":\"" + ApiUtil.j(req.getRequestURI()) + "\","
+                + "\"timestamp\":\"" + ApiUtil.j(ApiUtil.nowIso()) + "\","
+                + "\"requestId\":\"" + ApiUtil.j(requestId) + "\","
+                + "\"warnings\":" + (warning == null ? "[]" : "[\"" + ApiUtil.j(warning) + "\"]")
+                + "}";
+
+        ApiUtil.writeJson(resp, HttpServletResponse.SC_OK, body);
+    }
+
+    private int maxWindows(Granularity g, boolean cluster) {
+        if (!cluster) {
+            return g.getRetained();
+        }
+        return g == Granularity.MINUTE ? MAX_CLUSTER_MINUTES : MAX_CLUSTER_HOURS;
+    }
+
+    private String param(HttpServletRequest req, String name, String def) {
+        String v = req.getParameter(name);
+        return (v == null || v.isBlank()) ? def : v.trim();
+    }
+
+    private int intParam(HttpServletRequest req, String name, int def) {
+        String v = req.getParameter(name);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
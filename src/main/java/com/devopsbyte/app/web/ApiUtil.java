@@ -1,5 +1,7 @@
 package com.devopsbyte.app.web;
 
+import com.devopsbyte.app.trace.RequestTrace;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
@@ -26,6 +28,7 @@ public final class ApiUtil {
         resp.setHeader("Cache-Control", "no-store");
         if (requestId != null && !requestId.isBlank()) {
             resp.setHeader("X-Request-Id", requestId);
+            RequestTrace.tagRequestId(requestId);
         }
     }
 
@@ -34,6 +37,34 @@ public final class ApiUtil {
         resp.getWriter().write(jsonBody);
     }
 
+    /** Error body in the shape every API endpoint uses: error, route, timestamp, requestId. */
+    public static String errorJson(String error, String route, String requestId) {
+        return "{"
+                + "\"error\":\"" + j(error) + "\","
+                + "\"route\":\"" + j(route) + "\","
+                + "\"timestamp\":\"" + j(nowIso()) + "\","
+                + "\"requestId\":\"" + j(requestId) + "\""
+                + "}";
+    }
+
+    /**
+     * Reject with 503 + Retry-After and the standard JSON error body (used by the load filters).
+     */
+    public static void writeUnavailable(HttpServletRequest req, HttpServletResponse resp, String error,
+                                        long retryAfterSeconds) throws IOException {
+        String requestId = newRequestId();
+        setJsonHeaders(resp, requestId);
+        resp.setHeader("Retry-After", Long.toString(Math.max(1, retryAfterSeconds)));
+        writeJson(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, errorJson(error, req.getRequestURI(), requestId));
+    }
+
+    /** Context-relative path of the request: servlet path + path info. */
+    public static String routePath(HttpServletRequest req) {
+        String servletPath = req.getServletPath();
+        String pathInfo = req.getPathInfo();
+        return (servletPath == null ? "" : servletPath) + (pathInfo == null ? "" : pathInfo);
+    }
+
     /** Minimal JSON string escaper. */
     public static String j(String s) {
         if (s == null) return "";
@@ -42,7 +73,7 @@ public final class ApiUtil {
             char c = s.charAt(i);
             switch (c) {
                 case '\\': sb.append("\\\\"); break;
-                case '"': sb.append("\\""); break;
+                case '"': sb.append("\\\""); break;
                 case '\n': sb.append("\\n"); break;
                 case '\r': sb.append("\\r"); break;
                 case '\t': sb.append("\\t"); break;
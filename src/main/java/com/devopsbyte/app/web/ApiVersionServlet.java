@@ -3,6 +3,8 @@ package com.devopsbyte.app.web;
 import com.devopsbyte.app.ReleaseInfo;
 import com.devopsbyte.app.db.DbWriteResult;
 import com.devopsbyte.app.db.VersionHitDao;
+import com.devopsbyte.app.telemetry.HeavyHitters;
+import com.devopsbyte.app.telemetry.UniqueClients;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +25,10 @@ public class ApiVersionServlet extends HttpServlet {
         String requestId = ApiUtil.newRequestId();
         ApiUtil.setJsonHeaders(resp, requestId);
 
+        String userAgent = req.getHeader("User-Agent");
+        HeavyHitters.record(HeavyHitters.ENDPOINT_API_VERSION, userAgent, req.getRemoteAddr());
+        UniqueClients.record(HeavyHitters.ENDPOINT_API_VERSION, userAgent, req.getRemoteAddr());
+
         String pathInfo = req.getPathInfo(); // "/1"
         int requestedVersion = parseVersion(pathInfo);
 
@@ -52,8 +58,6 @@ public class ApiVersionServlet extends HttpServlet {
         else if (notYetDeployed) status = "NOT_YET_DEPLOYED";
         else status = "OLDER_RELEASE";
 
-        String userAgent = req.getHeader("User-Agent");
-
         DbWriteResult db = versionHitDao.logVersionHit(
                 requestedVersion,
                 appVersion,
@@ -0,0 +1,55 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.load.Bulkhead;
+import com.devopsbyte.app.load.Bulkheads;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Runs each request in its endpoint class's Bulkhead lane (see Bulkheads). Requests that cannot
+ * get a slot in time are answered with 503 + Retry-After, so a slow DB saturates only the
+ * DB_WRITERS lane and never delays probes or unlaned static pages.
+ * Registered after AdaptiveLimitFilter by RequestFilterRegistration.
+ */
+public class BulkheadFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+
+        Bulkheads.Lane lane = Bulkheads.laneFor(ApiUtil.routePath(req));
+        if (lane == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = Bulkheads.get(lane);
+        Bulkhead.Outcome outcome;
+        try {
+            outcome = bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ApiUtil.writeUnavailable(req, resp, "Interrupted while waiting for the " + lane.label() + " lane.", 1);
+            return;
+        }
+
+        if (outcome != Bulkhead.Outcome.ADMITTED) {
+            ApiUtil.writeUnavailable(req, resp, "Server busy: " + lane.label() + " lane is saturated.", 1);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.devopsbyte.app.web;
 
 import com.devopsbyte.app.GreetingUtil;
 import com.devopsbyte.app.db.RequestLogDao;
+import com.devopsbyte.app.telemetry.HeavyHitters;
+import com.devopsbyte.app.telemetry.UniqueClients;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -45,6 +47,10 @@ public class HelloServlet extends HttpServlet {
         String remoteAddr = req.getRemoteAddr();
         String appEnv = System.getenv("APP_ENV"); // optional; may be null
 
+        String userAgent = req.getHeader("User-Agent");
+        HeavyHitters.record(HeavyHitters.ENDPOINT_HELLO, userAgent, remoteAddr);
+        UniqueClients.record(HeavyHitters.ENDPOINT_HELLO, userAgent, remoteAddr);
+
         logDao.logHelloRequest(path, remoteAddr, appEnv, message);
     }
 }
@@ -0,0 +1,32 @@
+package com.devopsbyte.app.web;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Registers the request filters in a fixed order: TracingFilter times everything (shed requests
+ * included), AdaptiveLimitFilter sheds next, then BulkheadFilter assigns the survivors to their
+ * lane. (@WebFilter has no ordering and web.xml is generated by JspC, so the order is set here.)
+ */
+@WebListener
+public class RequestFilterRegistration implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ServletContext ctx = sce.getServletContext();
+        register(ctx, "TracingFilter", TracingFilter.class);
+        register(ctx, "AdaptiveLimitFilter", AdaptiveLimitFilter.class);
+        register(ctx, "BulkheadFilter", BulkheadFilter.class);
+    }
+
+    private static void register(ServletContext ctx, String name, Class<? extends Filter> type) {
+        FilterRegistration.Dynamic reg = ctx.addFilter(name, type);
+        if (reg != null) {
+            reg.addMappingForUrlPatterns(null, true, "/*");
+        }
+    }
+}
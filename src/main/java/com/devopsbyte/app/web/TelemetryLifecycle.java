@@ -0,0 +1,144 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.ErrorReporter;
+import com.devopsbyte.app.NodeInfo;
+import com.devopsbyte.app.cluster.ClusterRegistry;
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.DbWriteResult;
+import com.devopsbyte.app.db.HllSketchDao;
+import com.devopsbyte.app.db.NodeHeartbeatDao;
+import com.devopsbyte.app.db.VersionHitRollupDao;
+import com.devopsbyte.app.telemetry.UniqueClients;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the background telemetry thread for the lifetime of the webapp.
+ *
+ * Scheduled tasks (each does nothing while the DB is not usable):
+ *  - every HLL_FLUSH_SECONDS (default 60) changed HyperLogLog windows are upserted into
+ *    hll_sketch, and once more on shutdown;
+ *  - every ROLLUP_INTERVAL_SECONDS (default 30) new version_hit rows older than
+ *    ROLLUP_LAG_SECONDS (default 30) are folded into the minute/hour rollups;
+ *  - every HEARTBEAT_SECONDS (default 15, first beat at startup) this node's node_heartbeat
+ *    row is upserted and the cached /api/cluster view is refreshed (this one also runs
+ *    without a DB, keeping the single-node view current). Heartbeats have their own thread
+ *    so a long rollup cannot delay them past the staleness threshold.
+ */
+@WebListener
+public class TelemetryLifecycle implements ServletContextListener {
+
+    private static final long DEFAULT_FLUSH_SECONDS = 60;
+    private static final long DEFAULT_ROLLUP_INTERVAL_SECONDS = 30;
+    private static final long DEFAULT_ROLLUP_LAG_SECONDS = 30;
+    private static final long DEFAULT_HEARTBEAT_SECONDS = 15;
+    private static final int ROLLUP_BATCH_SIZE = 10_000;
+    private static final int ROLLUP_MAX_BATCHES = 10;
+
+    private final HllSketchDao hllSketchDao = new HllSketchDao();
+    private final VersionHitRollupDao rollupDao = new VersionHitRollupDao();
+    private final NodeHeartbeatDao heartbeatDao = new NodeHeartbeatDao();
+    private int rollupLagSeconds;
+    private ScheduledExecutorService scheduler;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        long flushSeconds = parsePositive(System.getenv("HLL_FLUSH_SECONDS"), DEFAULT_FLUSH_SECONDS);
+        scheduler = daemonScheduler("hellowar-telemetry");
+        scheduler.scheduleWithFixedDelay(this::flushSketches, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+
+        long rollupSeconds = parsePositive(System.getenv("ROLLUP_INTERVAL_SECONDS"), DEFAULT_ROLLUP_INTERVAL_SECONDS);
+        rollupLagSeconds = (int) Math.min(Integer.MAX_VALUE,
+                parsePositive(System.getenv("ROLLUP_LAG_SECONDS"), DEFAULT_ROLLUP_LAG_SECONDS));
+        scheduler.scheduleWithFixedDelay(this::materializeRollups, rollupSeconds, rollupSeconds, TimeUnit.SECONDS);
+
+        heartbeatScheduler = daemonScheduler("hellowar-heartbeat");
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatSeconds(), TimeUnit.SECONDS);
+    }
+
+    private static ScheduledExecutorService daemonScheduler(String threadName) {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** HEARTBEAT_SECONDS, also used by /api/cluster to decide when a node is stale. */
+    static long heartbeatSeconds() {
+        return parsePositive(System.getenv("HEARTBEAT_SECONDS"), DEFAULT_HEARTBEAT_SECONDS);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (scheduler == null) {
+            return;
+        }
+        heartbeatScheduler.shutdown();
+        scheduler.shutdown();
+        try {
+            heartbeatScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSketches();
+        DatabaseManager.shutdown();
+        ErrorReporter.shutdown();
+    }
+
+    private void flushSketches() {
+        // a scheduled task that throws is never run again
+        try {
+            if (!DatabaseManager.isDbUsable()) {
+                return;
+            }
+            DbWriteResult result = UniqueClients.flush(hllSketchDao, NodeInfo.getNodeId());
+            if (result.isEnabled() && !result.isOk()) {
+                ErrorReporter.warn("TelemetryLifecycle", "HLL flush incomplete", result.getWarning());
+            }
+        } catch (RuntimeException e) {
+            ErrorReporter.report("TelemetryLifecycle", "HLL flush failed", e);
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            ClusterRegistry.beat(heartbeatDao);
+        } catch (RuntimeException e) {
+            ErrorReporter.report("TelemetryLifecycle", "Heartbeat failed", e);
+        }
+    }
+
+    private void materializeRollups() {
+        try {
+            if (!DatabaseManager.isDbUsable()) {
+                return;
+            }
+            rollupDao.materializeAll(ROLLUP_BATCH_SIZE, rollupLagSeconds, ROLLUP_MAX_BATCHES);
+        } catch (SQLException | RuntimeException e) {
+            ErrorReporter.report("TelemetryLifecycle", "version_hit rollup failed", e);
+        }
+    }
+
+    static long parsePositive(String raw, long def) {
+        if (raw != null) {
+            try {
+                long parsed = Long.parseLong(raw.trim());
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to default
+            }
+        }
+        return def;
+    }
+}
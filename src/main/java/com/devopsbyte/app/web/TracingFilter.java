@@ -0,0 +1,297 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.trace.RequestTrace;
+import com.devopsbyte.app.trace.ServletRequestEvent;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Outermost filter: binds a RequestTrace to the request and emits a ServletRequestEvent to JFR.
+ *
+ * With SERVER_TIMING_ENABLED=true the response body is buffered (up to 64 KiB) until the chain
+ * completes, so the Server-Timing header (db-connect, db-exec, db-health, handler, response,
+ * total) covers everything the servlet did, including work after its first write. Responses
+ * the servlet commits itself (sendError, sendRedirect) and bodies larger than the buffer get
+ * the header as of that moment; a larger body is then streamed as written.
+ * The JFR events cost almost nothing unless a recording is running, e.g.
+ * {@code -XX:StartFlightRecording:filename=hellowar.jfr,settings=default}.
+ */
+public class TracingFilter implements Filter {
+
+    private static final boolean SERVER_TIMING =
+            "true".equalsIgnoreCase(String.valueOf(System.getenv("SERVER_TIMING_ENABLED")).trim());
+    static final int MAX_BUFFERED_BYTES = 64 * 1024;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+
+        RequestTrace trace = RequestTrace.begin(routeOf(req));
+        ServletRequestEvent event = new ServletRequestEvent();
+        event.method = req.getMethod();
+        event.uri = req.getRequestURI();
+        event.start();
+        TracedResponse traced = new TracedResponse(resp, trace, SERVER_TIMING);
+        String outcome = "exception";
+        try {
+            chain.doFilter(request, traced);
+            traced.complete();
+            outcome = outcomeOf(resp.getStatus());
+        } finally {
+            event.status = resp.getStatus();
+            event.responseNanos = trace.responseNanos();
+            event.finish(outcome);
+            RequestTrace.end();
+        }
+    }
+
+    private static String routeOf(HttpServletRequest req) {
+        HttpServletMapping mapping = req.getHttpServletMapping();
+        if (mapping != null && mapping.getPattern() != null && !mapping.getPattern().isEmpty()) {
+            return mapping.getPattern();
+        }
+        return ApiUtil.routePath(req);
+    }
+
+    private static String outcomeOf(int status) {
+        if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE) return "unavailable";
+        if (status >= 500) return "server_error";
+        if (status >= 400) return "client_error";
+        return "ok";
+    }
+
+    /**
+     * Marks the first body write on the trace. When buffering, keeps the body in memory and
+     * writes it, after the Server-Timing header, in complete(); a failed request discards it
+     * so the container's error page is sent instead. A body that outgrows MAX_BUFFERED_BYTES
+     * adds the header at that point and switches to pass-through.
+     */
+    private static final class TracedResponse extends HttpServletResponseWrapper {
+
+        private final RequestTrace trace;
+        private final boolean buffering;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final OutputStream sink = new Sink();
+        private ServletOutputStream out;
+        private PrintWriter writer;
+        private boolean timingAdded;
+        private boolean passThrough;
+        private long contentLength = -1;
+
+        TracedResponse(HttpServletResponse resp, RequestTrace trace, boolean buffering) {
+            super(resp);
+            this.trace = trace;
+            this.buffering = buffering;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            trace.markResponseStart();
+            if (!buffering) {
+                return super.getOutputStream();
+            }
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (out == null) {
+                out = new BufferStream(sink);
+            }
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            trace.markResponseStart();
+            if (!buffering) {
+                return super.getWriter();
+            }
+            if (out != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(sink, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (buffering && writer != null) {
+                writer.flush();
+            }
+            if (!buffering || passThrough) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            discardBody();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            discardBody();
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (!buffering || passThrough) {
+                super.setContentLengthLong(len);
+            } else {
+                contentLength = len;
+            }
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+            if (!buffering || passThrough) super.setBufferSize(size);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTiming();
+            super.sendRedirect(location);
+        }
+
+        /** The chain completed normally: send the header and the buffered body. */
+        void complete() throws IOException {
+            if (!buffering) {
+                return;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            boolean committedByServlet = super.isCommitted();
+            addTiming();
+            if (!passThrough && !committedByServlet && body.size() > 0) {
+                HttpServletResponse resp = (HttpServletResponse) getResponse();
+                resp.setContentLength(body.size());
+                body.writeTo(resp.getOutputStream());
+            }
+        }
+
+        private void addTiming() {
+            if (buffering && !timingAdded && !super.isCommitted()) {
+                setHeader("Server-Timing", trace.serverTiming());
+            }
+            timingAdded = true;
+        }
+
+        private void discardBody() {
+            if (writer != null) {
+                writer.flush();
+            }
+            body.reset();
+        }
+
+        /** Send the header with the timing so far and what is buffered, then stream the rest. */
+        private void overflow() throws IOException {
+            addTiming();
+            passThrough = true;
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            body.writeTo(getResponse().getOutputStream());
+            body.reset();
+        }
+
+        /** Body bytes from the stream or writer: buffered up to MAX_BUFFERED_BYTES, then passed on. */
+        private final class Sink extends OutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (!passThrough && body.size() + len > MAX_BUFFERED_BYTES) {
+                    overflow();
+                }
+                if (passThrough) {
+                    getResponse().getOutputStream().write(b, off, len);
+                } else {
+                    body.write(b, off, len);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (passThrough) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+        }
+    }
+
+    private static final class BufferStream extends ServletOutputStream {
+
+        private final OutputStream sink;
+
+        BufferStream(OutputStream sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            sink.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            sink.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            sink.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException("non-blocking writes are not supported while buffering");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.devopsbyte.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorReporterTest {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final ErrorReporter reporter = new ErrorReporter(
+            new PrintStream(buffer, true, StandardCharsets.UTF_8), 10_000L, now::get);
+
+    @Test
+    void identicalErrorsPrintOneTraceThenAPeriodicSummary() {
+        for (int i = 0; i < 500; i++) {
+            reporter.submit("VersionHitDao", "Failed to insert version_hit row", new SQLException("connection refused"));
+        }
+        reporter.drain(false);
+
+        String first = output();
+        assertEquals(1, count(first, "java.sql.SQLException: connection refused"));
+        assertFalse(first.contains("occurrences"));
+
+        now.addAndGet(10_000L);
+        reporter.drain(false);
+        assertTrue(output().contains("Failed to insert version_hit row: SQLException: connection refused"
+                + " (499 occurrences in last 10s, 500 total)"), output());
+
+        // nothing new: no more output
+        int length = output().length();
+        now.addAndGet(10_000L);
+        reporter.drain(false);
+        assertEquals(length, output().length());
+    }
+
+    @Test
+    void distinctErrorsAreCountedSeparately() {
+        reporter.submit("RequestLogDao", "Failed to insert request_log row", new SQLException("timeout"));
+        reporter.submit("RequestLogDao", "Failed to insert request_log row", new SQLException("timeout"));
+        reporter.submit("RequestLogDao", "Failed to insert request_log row", new IllegalStateException("no driver"));
+        reporter.drain(false);
+
+        List<ErrorReporter.ErrorCount> counts = reporter.snapshot();
+        assertEquals(2, counts.size());
+        assertEquals("SQLException", counts.get(0).getType());
+        assertEquals(2, counts.get(0).getTotal());
+        assertEquals("IllegalStateException", counts.get(1).getType());
+        assertEquals(1, counts.get(1).getTotal());
+    }
+
+    @Test
+    void varyingMessagesShareAGroupThatShowsTheLatest() {
+        reporter.submit("NodeHeartbeatDao", "Failed to read rows", new SQLException("shard0: timeout"));
+        reporter.submit("NodeHeartbeatDao", "Failed to read rows", new SQLException("shard1: timeout"));
+        reporter.submit("TelemetryLifecycle", "HLL flush incomplete", "1 of 4 sketches failed", null);
+        reporter.submit("TelemetryLifecycle", "HLL flush incomplete", "2 of 4 sketches failed", null);
+        reporter.drain(false);
+
+        List<ErrorReporter.ErrorCount> counts = reporter.snapshot();
+        assertEquals(2, counts.size());
+        for (ErrorReporter.ErrorCount c : counts) {
+            assertEquals(2, c.getTotal());
+        }
+        assertEquals(1, count(output(), "java.sql.SQLException"));
+
+        now.addAndGet(10_000L);
+        reporter.drain(false);
+        assertTrue(output().contains("HLL flush incomplete: warning: 2 of 4 sketches failed (1 occurrence"), output());
+        assertTrue(output().contains("Failed to read rows: SQLException: shard1: timeout (1 occurrence"), output());
+    }
+
+    @Test
+    void idleGroupsAreEvictedAndAFullTableStillPrintsNewErrors() {
+        for (int i = 0; i < ErrorReporter.MAX_GROUPS; i++) {
+            reporter.submit("Source" + i, "old error", null);
+            now.incrementAndGet();
+        }
+        reporter.drain(false);
+        assertEquals(ErrorReporter.MAX_GROUPS, reporter.snapshot().size());
+
+        // table is full: the least recently seen group makes room, and the new error is printed
+        reporter.submit("HllSketchDao", "new error", new IllegalStateException("first of its kind"));
+        reporter.drain(false);
+        assertTrue(output().contains("[HllSketchDao] new error: first of its kind"), output());
+        assertEquals(ErrorReporter.MAX_GROUPS, reporter.snapshot().size());
+        assertTrue(reporter.snapshot().stream().noneMatch(c -> c.getSource().equals("Source0")));
+        assertTrue(reporter.snapshot().stream().noneMatch(c -> c.getSource().equals("ErrorReporter")));
+
+        now.addAndGet(ErrorReporter.GROUP_IDLE_MILLIS);
+        reporter.submit("HllSketchDao", "new error", new IllegalStateException("again"));
+        reporter.drain(false);
+        List<ErrorReporter.ErrorCount> counts = reporter.snapshot();
+        assertEquals(1, counts.size());
+        assertEquals(2, counts.get(0).getTotal());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        for (int i = 0; i < ErrorReporter.QUEUE_CAPACITY; i++) {
+            assertTrue(reporter.submit("DatabaseManager", "boom", null));
+        }
+        assertFalse(reporter.submit("DatabaseManager", "boom", null));
+
+        reporter.drain(true);
+        assertTrue(output().contains("1 error events dropped (queue full)"));
+        assertEquals(ErrorReporter.QUEUE_CAPACITY, reporter.snapshot().get(0).getTotal());
+        assertTrue(reporter.submit("DatabaseManager", "boom", null));
+    }
+
+    private String output() {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int count(String haystack, String needle) {
+        int n = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+}
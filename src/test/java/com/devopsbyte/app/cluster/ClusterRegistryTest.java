@@ -0,0 +1,131 @@
+package com.devopsbyte.app.cluster;
+
+import com.devopsbyte.app.NodeInfo;
+import com.devopsbyte.app.ReleaseInfo;
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.NodeHeartbeat;
+import com.devopsbyte.app.db.NodeHeartbeatDao;
+import com.devopsbyte.app.db.sim.ExecutedStatement;
+import com.devopsbyte.app.db.sim.SimDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs against the two simulated shards configured for surefire in pom.xml. */
+public class ClusterRegistryTest {
+
+    private static final OffsetDateTime STARTED = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final Instant T0 = Instant.parse("2026-06-01T12:00:00Z");
+
+    private final NodeHeartbeatDao dao = new NodeHeartbeatDao();
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    private static Object[] row(String nodeId, int release, long ageSeconds) {
+        return new Object[]{nodeId, "1.0." + release, release, "UP", 3, 50, 1000L, 0L, null, STARTED, ageSeconds};
+    }
+
+    /** A node id (other than this node's) stored on the given shard. */
+    private static String nodeOnShard(int shard, String prefix) {
+        for (int i = 0; ; i++) {
+            String id = prefix + i;
+            if (DatabaseManager.shardFor(id).getIndex() == shard && !id.equals(NodeInfo.getNodeId())) {
+                return id;
+            }
+        }
+    }
+
+    private static NodeHeartbeat node(ClusterView view, String nodeId) {
+        return view.getNodes().stream().filter(n -> n.getNodeId().equals(nodeId)).findFirst().orElse(null);
+    }
+
+    @Test
+    void beatUpsertsOwnRowOnItsShardAndMergesAllShards() {
+        String self = NodeInfo.getNodeId();
+        SimDatabase.get("shard0").onQuery("FROM node_heartbeat", row("zz-node-b", 4, 5), row(self, 1, 40));
+        SimDatabase.get("shard1").onQuery("FROM node_heartbeat", row("aa-node-a", 3, 2));
+
+        ClusterView view = ClusterRegistry.beat(dao);
+
+        assertTrue(view.getDb().isOk());
+        List<String> ids = view.getNodes().stream().map(NodeHeartbeat::getNodeId).collect(Collectors.toList());
+        assertEquals(List.of("aa-node-a", self, "zz-node-b"), ids);
+
+        NodeHeartbeat mine = view.getNodes().get(1);
+        assertEquals(ReleaseInfo.getReleaseNumber(), mine.getReleaseNumber());
+        assertEquals(0, mine.getAgeSeconds());
+        assertEquals(3, view.getNodes().get(0).getReleaseNumber());
+        assertNull(view.getNodes().get(0).getLoadAverage());
+        assertEquals(STARTED.toInstant(), view.getNodes().get(2).getStartedAt());
+
+        SimDatabase owner = SimDatabase.get("shard" + DatabaseManager.shardFor(self).getIndex());
+        List<ExecutedStatement> upserts = owner.executed(ExecutedStatement.Kind.UPDATE);
+        assertEquals(1, upserts.size());
+        assertTrue(upserts.get(0).getSql().startsWith("INSERT INTO node_heartbeat"));
+        assertEquals(self, upserts.get(0).getParameters().get(0));
+        assertSame(view, ClusterRegistry.current());
+    }
+
+    @Test
+    void nodeFoundOnTwoShardsIsListedOnceWithItsFreshestRow() {
+        SimDatabase.get("shard0").onQuery("FROM node_heartbeat", row("moved-node", 2, 40));
+        SimDatabase.get("shard1").onQuery("FROM node_heartbeat", row("moved-node", 3, 4));
+
+        ClusterView view = ClusterRegistry.beat(dao);
+
+        List<NodeHeartbeat> moved = view.getNodes().stream()
+                .filter(n -> n.getNodeId().equals("moved-node")).collect(Collectors.toList());
+        assertEquals(1, moved.size());
+        assertEquals(4, moved.get(0).getAgeSeconds());
+        assertEquals(3, moved.get(0).getReleaseNumber());
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousViewAndWarns() {
+        String other = nodeOnShard(0, "other-node-");
+        SimDatabase.get("shard0").onQuery("FROM node_heartbeat", row(other, 2, 1));
+        ClusterRegistry.beat(dao, T0);
+
+        SimDatabase.get("shard0").down(true);
+        SimDatabase.get("shard1").down(true);
+        ClusterView view = ClusterRegistry.beat(dao, T0.plusSeconds(60));
+
+        assertFalse(view.getDb().isOk());
+        assertEquals(T0.plusSeconds(60), view.getRefreshedAt());
+        // carried over, but aged by the time the DB was unreadable, so it still goes stale
+        assertEquals(61, node(view, other).getAgeSeconds());
+        assertEquals(0, node(view, NodeInfo.getNodeId()).getAgeSeconds());
+
+        ClusterView later = ClusterRegistry.beat(dao, T0.plusSeconds(90));
+        assertEquals(91, node(later, other).getAgeSeconds());
+    }
+
+    @Test
+    void oneUnreadableShardOnlyFreezesTheNodesItStores() {
+        String onShard0 = nodeOnShard(0, "node-a-");
+        String onShard1 = nodeOnShard(1, "node-b-");
+        SimDatabase.get("shard0").onQuery("FROM node_heartbeat", row(onShard0, 2, 1));
+        SimDatabase.get("shard1").onQuery("FROM node_heartbeat", row(onShard1, 2, 4));
+        ClusterRegistry.beat(dao, T0);
+
+        SimDatabase.get("shard1").down(true);
+        SimDatabase.get("shard0").reset();
+        SimDatabase.get("shard0").onQuery("FROM node_heartbeat", row(onShard0, 3, 2));
+        ClusterView view = ClusterRegistry.beat(dao, T0.plusSeconds(30));
+
+        assertFalse(view.getDb().isOk());
+        assertEquals(3, node(view, onShard0).getReleaseNumber());
+        assertEquals(2, node(view, onShard0).getAgeSeconds());
+        assertEquals(34, node(view, onShard1).getAgeSeconds());
+    }
+}
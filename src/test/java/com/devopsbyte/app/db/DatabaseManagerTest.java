@@ -0,0 +1,62 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.db.sim.SimDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseManagerTest {
+
+    private static final ShardQuery<Integer> ONE = (shard, conn) -> {
+        conn.prepareStatement("SELECT 1").executeQuery().close();
+        return 1;
+    };
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    @Test
+    void scatterGatherFoldsEveryShard() throws SQLException {
+        assertEquals(2, DatabaseManager.scatterGather(ONE, 0, Integer::sum));
+    }
+
+    @Test
+    void slowShardTimesOutInsteadOfBlockingTheCaller() {
+        SimDatabase.get("shard1").statementLatency(Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        SQLException e = assertThrows(SQLException.class,
+                () -> DatabaseManager.scatterGather(ONE, 0, Integer::sum, 100));
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertInstanceOf(SQLTimeoutException.class, e);
+        assertTrue(e.getMessage().contains("no answer within 100 ms"), e.getMessage());
+        assertTrue(tookMillis < 900, "waited " + tookMillis + " ms");
+    }
+
+    @Test
+    void shutdownStopsThePoolAndALaterCallStartsANewOne() throws Exception {
+        DatabaseManager.scatterGather(ONE, 0, Integer::sum);
+        DatabaseManager.shutdown();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (scatterThreadsAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(scatterThreadsAlive(), "db-scatter threads outlived shutdown()");
+
+        assertEquals(2, DatabaseManager.scatterGather(ONE, 0, Integer::sum));
+    }
+
+    private static boolean scatterThreadsAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals("db-scatter") && t.isAlive());
+    }
+}
@@ -0,0 +1,67 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.db.sim.ExecutedStatement;
+import com.devopsbyte.app.db.sim.SimDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DbHealthTest {
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    @Test
+    void healthyWhenEveryShardIsReachable() {
+        assertTrue(DbHealth.check().isOk());
+        assertEquals(2, DbHealth.checkShards().size());
+    }
+
+    @Test
+    void reportsTheUnhealthyShard() {
+        SimDatabase.get("shard1").down(true);
+
+        List<DbWriteResult> shards = DbHealth.checkShards();
+        assertTrue(shards.get(0).isOk());
+        assertFalse(shards.get(1).isOk());
+
+        DbWriteResult overall = DbHealth.summarize(shards);
+        assertFalse(overall.isOk());
+        assertTrue(overall.getWarning().startsWith("shard 1 of 2: DB connectivity check failed"), overall.getWarning());
+    }
+
+    @Test
+    void failedValidationIsUnhealthy() {
+        SimDatabase.get("shard1").failOn("isValid");
+
+        List<DbWriteResult> shards = DbHealth.checkShards();
+        assertTrue(shards.get(0).isOk());
+        assertFalse(shards.get(1).isOk());
+        assertEquals("DB connection opened but isValid() returned false.", shards.get(1).getWarning());
+        List<ExecutedStatement> validations = SimDatabase.get("shard1").executed(ExecutedStatement.Kind.VALIDATE);
+        assertEquals(1, validations.size());
+        assertTrue(validations.get(0).isFailed());
+    }
+
+    @Test
+    void validationSlowerThanItsTimeoutIsUnhealthy() {
+        SimDatabase.get("shard0").statementLatency(Duration.ofMillis(2_500));
+
+        long start = System.nanoTime();
+        List<DbWriteResult> shards = DbHealth.checkShards();
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(shards.get(0).isOk());
+        assertTrue(shards.get(1).isOk());
+        // isValid(2) gives up at its timeout instead of waiting for the slow database
+        assertTrue(tookMillis >= 2_000 && tookMillis < 2_500, "took " + tookMillis + " ms");
+        assertTrue(SimDatabase.get("shard0").executed(ExecutedStatement.Kind.VALIDATE).get(0).getError()
+                .contains("timed out"));
+    }
+}
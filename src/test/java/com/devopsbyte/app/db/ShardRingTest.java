@@ -0,0 +1,98 @@
+package com.devopsbyte.app.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRingTest {
+
+    private static final int KEYS = 20_000;
+    private static final List<String> FOUR = List.of(
+            "jdbc:postgresql://db-a:5432/hellowar", "jdbc:postgresql://db-b:5432/hellowar",
+            "jdbc:postgresql://db-c:5432/hellowar", "jdbc:postgresql://db-d:5432/hellowar");
+
+    @Test
+    void singleShardOwnsEverything() {
+        ShardRing ring = new ShardRing(List.of("jdbc:sim:only"));
+        assertEquals(0, ring.shardFor("anything"));
+        assertEquals(0, ring.shardFor(null));
+    }
+
+    @Test
+    void routingIsDeterministicAcrossInstances() {
+        ShardRing a = new ShardRing(FOUR);
+        ShardRing b = new ShardRing(FOUR);
+        for (int i = 0; i < 1000; i++) {
+            String key = "req-" + i;
+            assertEquals(a.shardFor(key), b.shardFor(key));
+        }
+    }
+
+    @Test
+    void keysSpreadRoughlyEvenly() {
+        ShardRing ring = new ShardRing(FOUR);
+        int[] counts = new int[4];
+        for (int i = 0; i < KEYS; i++) {
+            counts[ring.shardFor(UUID.randomUUID().toString())]++;
+        }
+        for (int c : counts) {
+            // ideal is 25%; 160 virtual nodes keep each shard well within +/-30% of that
+            assertTrue(c > KEYS / 4 * 0.7 && c < KEYS / 4 * 1.3, "unbalanced shard: " + c);
+        }
+    }
+
+    @Test
+    void addingAShardMovesOnlyItsShareOfKeysAndOnlyToTheNewShard() {
+        ShardRing before = new ShardRing(FOUR);
+        List<String> five = new ArrayList<>(FOUR);
+        five.add("jdbc:postgresql://db-e:5432/hellowar");
+        ShardRing after = new ShardRing(five);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "10.0." + (i / 256) + "." + (i % 256);
+            int from = before.shardFor(key);
+            int to = after.shardFor(key);
+            if (from != to) {
+                moved++;
+                assertEquals(4, to, "key moved between existing shards: " + key);
+            }
+        }
+        // expected share is 1/5 of the keys
+        assertTrue(moved < KEYS * 0.3, "too many keys moved: " + moved);
+        assertTrue(moved > KEYS * 0.1, "new shard received too few keys: " + moved);
+    }
+
+    @Test
+    void reorderingTheShardListKeepsEveryKeyOnTheSameShard() {
+        List<String> reordered = List.of(FOUR.get(2), FOUR.get(0), FOUR.get(3), FOUR.get(1));
+        ShardRing before = new ShardRing(FOUR);
+        ShardRing after = new ShardRing(reordered);
+        for (int i = 0; i < KEYS; i++) {
+            String key = "req-" + i;
+            assertEquals(FOUR.get(before.shardFor(key)), reordered.get(after.shardFor(key)), key);
+        }
+    }
+
+    @Test
+    void shardEntriesMayBeNamedAndAreRoutedByName() {
+        Map<String, String> shards = DbConfig.parseShards(
+                " east=jdbc:postgresql://db-1:5432/app?ssl=true , jdbc:postgresql://db-2:5432/app,"
+                        + "east=jdbc:postgresql://db-3:5432/app, jdbc:postgresql://db-2:5432/app", null);
+        assertEquals(List.of("east", "jdbc:postgresql://db-2:5432/app"), List.copyOf(shards.keySet()));
+        assertEquals("jdbc:postgresql://db-1:5432/app?ssl=true", shards.get("east"));
+
+        // moving a named shard to another host keeps its keys
+        ShardRing before = new ShardRing(List.of("east", "west"));
+        ShardRing after = new ShardRing(List.of("west", "east"));
+        for (int i = 0; i < 1000; i++) {
+            String key = "10.0.0." + i;
+            assertEquals(before.shardFor(key), 1 - after.shardFor(key), key);
+        }
+        assertEquals(Map.of("jdbc:sim:x", "jdbc:sim:x"), DbConfig.parseShards(null, "jdbc:sim:x"));
+    }
+}
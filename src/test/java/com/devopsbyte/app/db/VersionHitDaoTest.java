@@ -0,0 +1,108 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.db.sim.ExecutedStatement;
+import com.devopsbyte.app.db.sim.SimDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs against the two simulated shards configured for surefire in pom.xml. */
+public class VersionHitDaoTest {
+
+    private final VersionHitDao dao = new VersionHitDao();
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    @Test
+    void writesToTheShardOwningTheRequestIdWithNativeTypes() {
+        String requestId = UUID.randomUUID().toString();
+        DbWriteResult result = dao.logVersionHit(3, "1.0.0", 7, requestId, "curl/8.0");
+
+        assertTrue(result.isEnabled());
+        assertTrue(result.isOk());
+
+        DbShard owner = DatabaseManager.shardFor(requestId);
+        SimDatabase ownerDb = sim(owner);
+        SimDatabase otherDb = sim(DatabaseManager.getShards().get(1 - owner.getIndex()));
+
+        List<ExecutedStatement> updates = ownerDb.executed(ExecutedStatement.Kind.UPDATE);
+        assertEquals(1, updates.size());
+        assertTrue(otherDb.executed().isEmpty());
+
+        List<Object> params = updates.get(0).getParameters();
+        assertEquals((short) 3, params.get(0));
+        assertEquals(7, params.get(2));
+        assertEquals(UUID.fromString(requestId), params.get(3));
+        assertEquals(0, ownerDb.getOpenConnections());
+    }
+
+    @Test
+    void nonUuidRequestIdIsStoredAsNull() {
+        dao.logVersionHit(1, "1.0.0", 1, "not-a-uuid", null);
+
+        SimDatabase db = sim(DatabaseManager.shardFor("not-a-uuid"));
+        List<Object> params = db.executed(ExecutedStatement.Kind.UPDATE).get(0).getParameters();
+        assertNull(params.get(3));
+        assertEquals("", params.get(4));
+    }
+
+    @Test
+    void failuresBecomeWarningsNotExceptions() {
+        String requestId = UUID.randomUUID().toString();
+        sim(DatabaseManager.shardFor(requestId)).down(true);
+
+        DbWriteResult result = dao.logVersionHit(1, "1.0.0", 1, requestId, "ua");
+        assertTrue(result.isEnabled());
+        assertFalse(result.isOk());
+        assertTrue(result.getWarning().startsWith("DB write failed"), result.getWarning());
+    }
+
+    @Test
+    void concurrentWritersUnderSimulatedLatency() throws Exception {
+        for (DbShard shard : DatabaseManager.getShards()) {
+            sim(shard).seed(42)
+                    .connectLatency(Duration.ofMillis(2))
+                    .statementLatency(Duration.ofMillis(1))
+                    .jitter(Duration.ofMillis(1))
+                    .maxConnections(4);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<DbWriteResult>> results = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            results.add(pool.submit(() -> dao.logVersionHit(2, "1.0.0", 2, UUID.randomUUID().toString(), "ua")));
+        }
+        int ok = 0;
+        for (Future<DbWriteResult> f : results) {
+            ok += f.get().isOk() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        int executed = 0;
+        for (DbShard shard : DatabaseManager.getShards()) {
+            SimDatabase db = sim(shard);
+            executed += db.executed(ExecutedStatement.Kind.UPDATE).size();
+            assertTrue(db.getPeakConnections() <= 4);
+            assertTrue(db.executed().isEmpty() || db.statementLatencyPercentile(50) >= Duration.ofMillis(1).toNanos());
+        }
+        // writes refused by the connection limit surface as warnings, everything else lands
+        assertEquals(ok, executed);
+        assertTrue(ok > 0);
+    }
+
+    private static SimDatabase sim(DbShard shard) {
+        return SimDatabase.get(shard.getUrl().substring("jdbc:sim:".length()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.devopsbyte.app.db;
+
+import com.devopsbyte.app.db.sim.ExecutedStatement;
+import com.devopsbyte.app.db.sim.SimDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionHitRollupDaoTest {
+
+    private final VersionHitRollupDao dao = new VersionHitRollupDao();
+    private final SimDatabase shard0 = SimDatabase.get("shard0");
+    private final SimDatabase shard1 = SimDatabase.get("shard1");
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    @Test
+    void foldsBatchAndAdvancesWatermarkInOneTransaction() throws Exception {
+        shard0.onQuery("FROM rollup_watermark", new Object[]{100L})
+              .onQuery("SELECT MAX(id)", new Object[]{250L});
+
+        long advanced = dao.materialize(DatabaseManager.getShards().get(0), 1000, 30);
+        assertEquals(150, advanced);
+
+        List<ExecutedStatement> log = shard0.executed();
+        List<ExecutedStatement> updates = shard0.executed(ExecutedStatement.Kind.UPDATE);
+        assertEquals(3, updates.size());
+        assertTrue(updates.get(0).getSql().startsWith("INSERT INTO version_hit_rollup_minute"));
+        assertTrue(updates.get(1).getSql().startsWith("INSERT INTO version_hit_rollup_hour"));
+        assertEquals(List.of(100L, 250L), updates.get(0).getParameters());
+        assertEquals(List.of(250L, "version_hit"), updates.get(2).getParameters());
+        assertEquals(ExecutedStatement.Kind.COMMIT, log.get(log.size() - 1).getKind());
+    }
+
+    @Test
+    void skipsWhenWatermarkIsHeldByAnotherNode() throws Exception {
+        // SKIP LOCKED returns no row
+        assertEquals(0, dao.materialize(DatabaseManager.getShards().get(0), 1000, 30));
+        assertTrue(shard0.executed(ExecutedStatement.Kind.UPDATE).isEmpty());
+    }
+
+    @Test
+    void failedBatchIsRolledBackSoItIsRetriedWhole() throws Exception {
+        // the watermark the lock query sees is the last one committed
+        shard0.onQuery("FROM rollup_watermark",
+                        (sql, params) -> List.<Object[]>of(new Object[]{committedWatermark(shard0, 100L)}))
+              .onQuery("SELECT MAX(id)", new Object[]{250L});
+        shard0.failOn("INSERT INTO version_hit_rollup_hour");
+
+        assertThrows(Exception.class, () -> dao.materialize(DatabaseManager.getShards().get(0), 1000, 30));
+        assertEquals(1, shard0.executed(ExecutedStatement.Kind.ROLLBACK).size());
+        assertTrue(shard0.executed(ExecutedStatement.Kind.COMMIT).isEmpty());
+        assertTrue(shard0.executed(ExecutedStatement.Kind.UPDATE).stream()
+                .noneMatch(s -> s.getSql().startsWith("UPDATE rollup_watermark")));
+        // the hour insert was attempted, failed, and the rollback came right after it
+        List<ExecutedStatement> log = shard0.executed();
+        ExecutedStatement failed = log.get(log.size() - 2);
+        assertTrue(failed.isFailed() && failed.getSql().startsWith("INSERT INTO version_hit_rollup_hour"), failed.toString());
+        assertEquals(ExecutedStatement.Kind.ROLLBACK, log.get(log.size() - 1).getKind());
+
+        shard0.failOn(null);
+        assertEquals(150, dao.materialize(DatabaseManager.getShards().get(0), 1000, 30));
+        List<ExecutedStatement> minute = shard0.executed(ExecutedStatement.Kind.UPDATE).stream()
+                .filter(s -> s.getSql().startsWith("INSERT INTO version_hit_rollup_minute"))
+                .collect(Collectors.toList());
+        assertEquals(2, minute.size());
+        assertEquals(List.of(100L, 250L), minute.get(1).getParameters());
+        assertEquals(1, shard0.executed(ExecutedStatement.Kind.COMMIT).size());
+        assertEquals(250L, committedWatermark(shard0, 100L));
+    }
+
+    /** last_id of the newest watermark UPDATE that a COMMIT followed, else initial. */
+    private static long committedWatermark(SimDatabase db, long initial) {
+        long committed = initial;
+        Long pending = null;
+        for (ExecutedStatement s : db.executed()) {
+            if (s.getKind() == ExecutedStatement.Kind.UPDATE && s.getSql().startsWith("UPDATE rollup_watermark")) {
+                pending = (Long) s.getParameters().get(0);
+            } else if (s.getKind() == ExecutedStatement.Kind.ROLLBACK) {
+                pending = null;
+            } else if (s.getKind() == ExecutedStatement.Kind.COMMIT && pending != null) {
+                committed = pending;
+                pending = null;
+            }
+        }
+        return committed;
+    }
+
+    @Test
+    void queryCombinesShards() throws Exception {
+        OffsetDateTime bucket = OffsetDateTime.of(2025, 11, 10, 21, 0, 0, 0, ZoneOffset.UTC);
+        shard0.onQuery("version_hit_rollup_hour", new Object[]{bucket, 1, 3, 10L}, new Object[]{bucket, 2, 3, 1L});
+        shard1.onQuery("version_hit_rollup_hour", new Object[]{bucket, 1, 3, 5L});
+
+        List<VersionHitRollup> rows = dao.query(VersionHitRollupDao.HOUR,
+                bucket.toInstant(), bucket.toInstant().plusSeconds(3600));
+
+        assertEquals(2, rows.size());
+        assertEquals(Instant.parse("2025-11-10T21:00:00Z"), rows.get(0).getBucketStart());
+        assertEquals(1, rows.get(0).getVersion());
+        assertEquals(15, rows.get(0).getHits());
+        assertEquals(2, rows.get(1).getVersion());
+        assertEquals(1, rows.get(1).getHits());
+    }
+}
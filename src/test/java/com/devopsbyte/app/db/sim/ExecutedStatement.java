@@ -0,0 +1,70 @@
+package com.devopsbyte.app.db.sim;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One statement (or batch, transaction end or connection validation) attempted against a
+ * SimDatabase, with its outcome: failed attempts are recorded too, with their error.
+ */
+public final class ExecutedStatement {
+
+    public enum Kind { QUERY, UPDATE, BATCH, COMMIT, ROLLBACK, VALIDATE }
+
+    private final Kind kind;
+    private final String sql;
+    private final List<List<Object>> parameterSets;
+    private final long latencyNanos;
+    private final String thread;
+    private final String error;
+
+    ExecutedStatement(Kind kind, String sql, List<List<Object>> parameterSets, long latencyNanos, String error) {
+        this.kind = kind;
+        this.sql = sql;
+        this.parameterSets = Collections.unmodifiableList(parameterSets);
+        this.latencyNanos = latencyNanos;
+        this.thread = Thread.currentThread().getName();
+        this.error = error;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /** Bound parameters (index 0 = parameter 1); empty for COMMIT/ROLLBACK. */
+    public List<Object> getParameters() {
+        return parameterSets.isEmpty() ? Collections.emptyList() : parameterSets.get(0);
+    }
+
+    /** One entry per addBatch() for BATCH, otherwise a single entry. */
+    public List<List<Object>> getParameterSets() {
+        return parameterSets;
+    }
+
+    /** Simulated execution time, including injected latency. */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    /** Why the attempt failed, or null if it succeeded. */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + sql + " " + parameterSets + (error == null ? "" : " FAILED: " + error);
+    }
+}
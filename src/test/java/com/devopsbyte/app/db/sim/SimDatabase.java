@@ -0,0 +1,313 @@
+package com.devopsbyte.app.db.sim;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One simulated database behind {@code jdbc:sim:<name>}.
+ *
+ * Knobs (all default to zero/off, i.e. an instant, always-successful database):
+ *  - connectLatency / statementLatency: fixed delay per connect / per executed statement;
+ *  - jitter: extra uniform random delay in [0, jitter) on both;
+ *  - failureRate: probability that a connect or a statement throws SQLException;
+ *  - failOn: every statement whose SQL contains a fragment throws (connects still succeed);
+ *    connection validation counts as the statement "isValid";
+ *  - down: every connect fails, and statements on connections already open fail, as during an
+ *    outage;
+ *  - maxConnections: connects beyond this many open connections fail, like PostgreSQL's
+ *    "too many clients".
+ *
+ * Connection.isValid(timeout) goes through the same latency and failure injection; it returns
+ * false when the injected latency exceeds the timeout, the database is down or a failure is
+ * injected.
+ *
+ * Randomness comes from a seeded generator so runs are reproducible. Every attempted statement,
+ * batch, commit, rollback and validation is recorded in order with its outcome, including those
+ * that failed. Queries return no rows unless a handler registered with onQuery() matches the SQL.
+ */
+public final class SimDatabase {
+
+    /** Produces the rows for a query; each row is indexed from column 1 at position 0. */
+    @FunctionalInterface
+    public interface QueryHandler {
+        List<Object[]> rows(String sql, List<Object> parameters);
+    }
+
+    private static final Map<String, SimDatabase> DATABASES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private volatile long connectLatencyNanos;
+    private volatile long statementLatencyNanos;
+    private volatile long jitterNanos;
+    private volatile double failureRate;
+    private volatile boolean down;
+    private volatile String failOnSql;
+    private volatile int maxConnections = Integer.MAX_VALUE;
+    private Random random = new Random(0);
+
+    private final List<Map.Entry<String, QueryHandler>> handlers = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<ExecutedStatement> executed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+    private final AtomicLong connectAttempts = new AtomicLong();
+    private final AtomicLong failedConnects = new AtomicLong();
+
+    private SimDatabase(String name) {
+        this.name = name;
+    }
+
+    public static SimDatabase get(String name) {
+        return DATABASES.computeIfAbsent(name, SimDatabase::new);
+    }
+
+    /** Reset configuration and recordings of every database. */
+    public static void resetAll() {
+        DATABASES.values().forEach(SimDatabase::reset);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SimDatabase connectLatency(Duration d) {
+        connectLatencyNanos = d.toNanos();
+        return this;
+    }
+
+    public SimDatabase statementLatency(Duration d) {
+        statementLatencyNanos = d.toNanos();
+        return this;
+    }
+
+    public SimDatabase jitter(Duration d) {
+        jitterNanos = d.toNanos();
+        return this;
+    }
+
+    public SimDatabase failureRate(double rate) {
+        failureRate = rate;
+        return this;
+    }
+
+    /** Fail every statement whose SQL contains sqlFragment; null turns it off. */
+    public SimDatabase failOn(String sqlFragment) {
+        failOnSql = sqlFragment;
+        return this;
+    }
+
+    public SimDatabase down(boolean isDown) {
+        down = isDown;
+        return this;
+    }
+
+    public SimDatabase maxConnections(int max) {
+        maxConnections = max;
+        return this;
+    }
+
+    public synchronized SimDatabase seed(long seed) {
+        random = new Random(seed);
+        return this;
+    }
+
+    /** Serve queries whose SQL contains sqlFragment (first registered match wins). */
+    public SimDatabase onQuery(String sqlFragment, QueryHandler handler) {
+        handlers.add(Map.entry(sqlFragment, handler));
+        return this;
+    }
+
+    /** Convenience for a query that always returns the given rows. */
+    public SimDatabase onQuery(String sqlFragment, Object[]... rows) {
+        List<Object[]> fixed = Arrays.asList(rows);
+        return onQuery(sqlFragment, (sql, params) -> fixed);
+    }
+
+    public synchronized void reset() {
+        connectLatencyNanos = 0;
+        statementLatencyNanos = 0;
+        jitterNanos = 0;
+        failureRate = 0;
+        down = false;
+        failOnSql = null;
+        maxConnections = Integer.MAX_VALUE;
+        random = new Random(0);
+        handlers.clear();
+        clearRecordings();
+    }
+
+    public void clearRecordings() {
+        executed.clear();
+        peakConnections.set(openConnections.get());
+        connectAttempts.set(0);
+        failedConnects.set(0);
+    }
+
+    /** Everything attempted so far, failures included, in completion order. */
+    public List<ExecutedStatement> executed() {
+        return new ArrayList<>(executed);
+    }
+
+    public List<ExecutedStatement> executed(ExecutedStatement.Kind kind) {
+        List<ExecutedStatement> out = new ArrayList<>();
+        for (ExecutedStatement s : executed) {
+            if (s.getKind() == kind) {
+                out.add(s);
+            }
+        }
+        return out;
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getPeakConnections() {
+        return peakConnections.get();
+    }
+
+    public long getConnectAttempts() {
+        return connectAttempts.get();
+    }
+
+    public long getFailedConnects() {
+        return failedConnects.get();
+    }
+
+    /** Latency percentile (0..100) over recorded statements, in nanoseconds; 0 when none. */
+    public long statementLatencyPercentile(double percentile) {
+        List<Long> latencies = new ArrayList<>();
+        for (ExecutedStatement s : executed) {
+            if (s.getKind() != ExecutedStatement.Kind.COMMIT && s.getKind() != ExecutedStatement.Kind.ROLLBACK
+                    && s.getKind() != ExecutedStatement.Kind.VALIDATE) {
+                latencies.add(s.getLatencyNanos());
+            }
+        }
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(latencies);
+        int idx = (int) Math.ceil(percentile / 100.0 * latencies.size()) - 1;
+        return latencies.get(Math.max(0, Math.min(latencies.size() - 1, idx)));
+    }
+
+    Connection connect() throws SQLException {
+        connectAttempts.incrementAndGet();
+        pause(delay(connectLatencyNanos));
+        if (down || shouldFail()) {
+            failedConnects.incrementAndGet();
+            throw new SQLTransientConnectionException("sim:" + name + " connection refused");
+        }
+        int open = openConnections.incrementAndGet();
+        if (open > maxConnections) {
+            openConnections.decrementAndGet();
+            failedConnects.incrementAndGet();
+            throw new SQLTransientConnectionException("sim:" + name + " too many clients (" + maxConnections + ")");
+        }
+        peakConnections.accumulateAndGet(open, Math::max);
+        return SimJdbc.connection(this);
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    /** Applies latency and failure injection, then records the attempt and its outcome. */
+    void execute(ExecutedStatement.Kind kind, String sql, List<List<Object>> parameterSets) throws SQLException {
+        long start = System.nanoTime();
+        boolean txEnd = kind == ExecutedStatement.Kind.COMMIT || kind == ExecutedStatement.Kind.ROLLBACK;
+        SQLException failure = null;
+        if (down) {
+            failure = new SQLException("sim:" + name + " connection lost executing: " + sql, "08006");
+        } else if (!txEnd) {
+            pause(delay(statementLatencyNanos));
+            if (injectFailure(sql)) {
+                failure = new SQLException("sim:" + name + " injected failure executing: " + sql, "08006");
+            }
+        }
+        executed.add(new ExecutedStatement(kind, sql, parameterSets, System.nanoTime() - start,
+                failure == null ? null : failure.getMessage()));
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Connection.isValid(timeoutSeconds): statement latency and failures apply, 0 means no timeout. */
+    boolean validate(int timeoutSeconds) {
+        long start = System.nanoTime();
+        long delay = delay(statementLatencyNanos);
+        long timeoutNanos = timeoutSeconds > 0 ? TimeUnit.SECONDS.toNanos(timeoutSeconds) : Long.MAX_VALUE;
+        pause(Math.min(delay, timeoutNanos));
+        String error = null;
+        if (delay > timeoutNanos) {
+            error = "sim:" + name + " validation timed out after " + timeoutSeconds + "s";
+        } else if (down) {
+            error = "sim:" + name + " connection lost";
+        } else if (injectFailure("isValid")) {
+            error = "sim:" + name + " injected validation failure";
+        }
+        executed.add(new ExecutedStatement(ExecutedStatement.Kind.VALIDATE, "isValid",
+                Collections.emptyList(), System.nanoTime() - start, error));
+        return error == null;
+    }
+
+    List<Object[]> rows(String sql, List<Object> parameters) {
+        for (Map.Entry<String, QueryHandler> h : handlers) {
+            if (sql.contains(h.getKey())) {
+                return h.getValue().rows(sql, parameters);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /** Base delay plus random jitter. */
+    private long delay(long baseNanos) {
+        long total = baseNanos;
+        long jitter = jitterNanos;
+        if (jitter > 0) {
+            synchronized (this) {
+                total += (long) (random.nextDouble() * jitter);
+            }
+        }
+        return total;
+    }
+
+    private static void pause(long total) {
+        if (total > 0) {
+            long deadline = System.nanoTime() + total;
+            long left;
+            while ((left = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(left);
+            }
+        }
+    }
+
+    private boolean injectFailure(String sql) {
+        String failOn = failOnSql;
+        return shouldFail() || (failOn != null && sql.contains(failOn));
+    }
+
+    private boolean shouldFail() {
+        double rate = failureRate;
+        if (rate <= 0) {
+            return false;
+        }
+        synchronized (this) {
+            return random.nextDouble() < rate;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.devopsbyte.app.db.sim;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * In-memory JDBC stand-in for PostgreSQL, for tests and offline benchmarks of the DB layer.
+ *
+ * URLs look like {@code jdbc:sim:<name>}; each name is an independent SimDatabase whose
+ * latency, failures and connection limit are configured from the test. Point DatabaseManager
+ * at it with DB_URL / DB_SHARD_URLS (the surefire configuration in pom.xml does this).
+ *
+ * Registered through META-INF/services/java.sql.Driver and on class load.
+ */
+public final class SimDriver implements Driver {
+
+    public static final String URL_PREFIX = "jdbc:sim:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new SimDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null; // DriverManager contract: not ours
+        }
+        return SimDatabase.get(url.substring(URL_PREFIX.length())).connect();
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("no logging");
+    }
+}
@@ -0,0 +1,258 @@
+package com.devopsbyte.app.db.sim;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dynamic-proxy implementations of the JDBC interfaces the DB layer uses. Methods outside that
+ * subset throw SQLFeatureNotSupportedException, so a DAO that starts relying on something new
+ * fails loudly in tests instead of silently getting a default.
+ */
+final class SimJdbc {
+
+    private SimJdbc() {}
+
+    static Connection connection(SimDatabase db) {
+        return proxy(Connection.class, new ConnectionHandler(db));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SimJdbc.class.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> {
+            switch (m.getName()) {
+                case "toString": return type.getSimpleName() + "@sim";
+                case "hashCode": return System.identityHashCode(p);
+                case "equals": return p == args[0];
+                case "isWrapperFor": return false;
+                default:
+                    try {
+                        return handler.invoke(p, m, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        });
+    }
+
+    private static SQLException unsupported(Method m) {
+        return new SQLFeatureNotSupportedException("sim JDBC does not support " + m.getDeclaringClass().getSimpleName()
+                + "." + m.getName());
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final SimDatabase db;
+        private boolean closed;
+        private boolean autoCommit = true;
+
+        ConnectionHandler(SimDatabase db) {
+            this.db = db;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            if (name.equals("close")) {
+                if (!closed) {
+                    closed = true;
+                    db.connectionClosed();
+                }
+                return null;
+            }
+            if (name.equals("isClosed")) {
+                return closed;
+            }
+            if (closed) {
+                throw new SQLException("connection is closed", "08003");
+            }
+            switch (name) {
+                case "isValid":
+                    return db.validate((Integer) args[0]);
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler(db, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler(db, null));
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "commit":
+                    db.execute(ExecutedStatement.Kind.COMMIT, "COMMIT", Collections.emptyList());
+                    return null;
+                case "rollback":
+                    db.execute(ExecutedStatement.Kind.ROLLBACK, "ROLLBACK", Collections.emptyList());
+                    return null;
+                case "clearWarnings":
+                    return null;
+                case "getWarnings":
+                    return null;
+                default:
+                    throw unsupported(m);
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final SimDatabase db;
+        private final String preparedSql;
+        private final List<Object> params = new ArrayList<>();
+        private final List<List<Object>> batch = new ArrayList<>();
+        private ResultSet current;
+        private boolean closed;
+
+        StatementHandler(SimDatabase db, String preparedSql) {
+            this.db = db;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            if (name.equals("close")) {
+                closed = true;
+                return null;
+            }
+            if (name.equals("isClosed")) {
+                return closed;
+            }
+            if (closed) {
+                throw new SQLException("statement is closed");
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && preparedSql != null) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            switch (name) {
+                case "clearParameters":
+                    params.clear();
+                    return null;
+                case "addBatch":
+                    batch.add(new ArrayList<>(params));
+                    return null;
+                case "executeBatch": {
+                    List<List<Object>> sets = new ArrayList<>(batch);
+                    batch.clear();
+                    db.execute(ExecutedStatement.Kind.BATCH, preparedSql, sets);
+                    int[] counts = new int[sets.size()];
+                    java.util.Arrays.fill(counts, 1);
+                    return counts;
+                }
+                case "executeUpdate":
+                    db.execute(ExecutedStatement.Kind.UPDATE, sql(args), List.of(new ArrayList<>(params)));
+                    return 1;
+                case "executeQuery":
+                    return query(sql(args));
+                case "execute": {
+                    String sql = sql(args);
+                    if (sql.trim().toUpperCase().startsWith("SELECT")) {
+                        query(sql);
+                        return true;
+                    }
+                    db.execute(ExecutedStatement.Kind.UPDATE, sql, List.of(new ArrayList<>(params)));
+                    return false;
+                }
+                case "getResultSet":
+                    return current;
+                case "getUpdateCount":
+                    return current == null ? 1 : -1;
+                case "setQueryTimeout":
+                case "setFetchSize":
+                    return null;
+                case "getWarnings":
+                    return null;
+                default:
+                    throw unsupported(m);
+            }
+        }
+
+        private String sql(Object[] args) {
+            return (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : preparedSql;
+        }
+
+        private void bind(int index, Object value) {
+            while (params.size() < index) {
+                params.add(null);
+            }
+            params.set(index - 1, value);
+        }
+
+        private ResultSet query(String sql) throws SQLException {
+            List<Object> bound = new ArrayList<>(params);
+            db.execute(ExecutedStatement.Kind.QUERY, sql, List.of(bound));
+            current = proxy(ResultSet.class, new ResultSetHandler(db.rows(sql, bound)));
+            return current;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final List<Object[]> rows;
+        private int cursor = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        ResultSetHandler(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            switch (name) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "next":
+                    cursor++;
+                    return cursor < rows.size();
+                case "wasNull":
+                    return wasNull;
+                default:
+                    break;
+            }
+            if (name.startsWith("get") && args != null && args.length >= 1 && args[0] instanceof Integer) {
+                Object v = column((Integer) args[0]);
+                wasNull = v == null;
+                return convert(v, name.equals("getObject") && args.length == 2 ? (Class<?>) args[1] : m.getReturnType());
+            }
+            throw unsupported(m);
+        }
+
+        private Object column(int index) throws SQLException {
+            if (cursor < 0 || cursor >= rows.size()) {
+                throw new SQLException("no current row");
+            }
+            Object[] row = rows.get(cursor);
+            if (index < 1 || index > row.length) {
+                throw new SQLException("column index out of range: " + index);
+            }
+            return row[index - 1];
+        }
+
+        private Object convert(Object v, Class<?> type) {
+            if (type == long.class) return v == null ? 0L : ((Number) v).longValue();
+            if (type == int.class) return v == null ? 0 : ((Number) v).intValue();
+            if (type == short.class) return v == null ? (short) 0 : ((Number) v).shortValue();
+            if (type == double.class) return v == null ? 0d : ((Number) v).doubleValue();
+            if (type == boolean.class) return v != null && (Boolean) v;
+            if (v == null) return null;
+            if (type == String.class) return v.toString();
+            if (type == Long.class && v instanceof Number) return ((Number) v).longValue();
+            if (type == Integer.class && v instanceof Number) return ((Number) v).intValue();
+            return v;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.devopsbyte.app.jsp;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the JspC-generated index_jsp servlet next to Jasper's on-demand JspServlet
+ * in an embedded Tomcat and checks both render the same page.
+ */
+public class IndexJspPrecompiledTest {
+
+    @TempDir
+    Path baseDir;
+
+    private Tomcat tomcat;
+    private int port;
+
+    @BeforeEach
+    void startTomcat() throws Exception {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+
+        // addWebapp() installs the default and JspServlet mappings, like a stock Tomcat
+        Context ctx = tomcat.addWebapp("", new File("src/main/webapp").getAbsolutePath());
+        ((StandardJarScanner) ctx.getJarScanner()).setScanClassPath(false);
+
+        // Register by class name: index_jsp binds JspFactory in its static initializer,
+        // so it must not load before JasperInitializer has run.
+        Tomcat.addServlet(ctx, "precompiled-index", index_jsp.class.getName());
+        ctx.addServletMappingDecoded("/precompiled", "precompiled-index");
+
+        tomcat.start();
+        port = tomcat.getConnector().getLocalPort();
+    }
+
+    @AfterEach
+    void stopTomcat() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    void precompiledServletMatchesJasperOutput() throws IOException {
+        String precompiled = get("/precompiled");
+        String jasper = get("/index.jsp");
+
+        assertTrue(precompiled.contains("<h1>Hello WAR</h1>"));
+        assertTrue(precompiled.contains("href=\"/hello\""));
+        assertEquals(jasper, precompiled);
+    }
+
+    @Test
+    void generatedWebXmlMapsIndexJspToPrecompiledServlet() throws IOException {
+        String webXml = Files.readString(Path.of("target/jspc/web.xml"), StandardCharsets.UTF_8);
+
+        assertTrue(webXml.contains("<servlet-class>" + index_jsp.class.getName() + "</servlet-class>"));
+        assertTrue(webXml.contains("<url-pattern>/index.jsp</url-pattern>"));
+        // annotation-mapped servlets must keep working alongside the generated mappings
+        assertTrue(webXml.contains("metadata-complete=\"false\""));
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        try {
+            assertEquals(200, conn.getResponseCode());
+            try (InputStream in = conn.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+}
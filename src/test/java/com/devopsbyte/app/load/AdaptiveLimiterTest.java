@@ -0,0 +1,150 @@
+package com.devopsbyte.app.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long WINDOW = 100 * MS;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private AdaptiveLimiter limiter(int initial) {
+        return new AdaptiveLimiter("test", initial, 2, 100, 2.0, 0.5, 0.25, WINDOW, 10, 30_000 * MS, now::get);
+    }
+
+    /**
+     * One sample window: up to n concurrent requests, the i-th taking rttNanos[i % length];
+     * returns how many were shed.
+     */
+    private int window(AdaptiveLimiter limiter, int n, long... rttNanos) {
+        int admitted = 0;
+        for (int i = 0; i < n; i++) {
+            if (limiter.tryAcquire(false)) admitted++;
+        }
+        now.addAndGet(WINDOW);
+        for (int i = 0; i < admitted; i++) {
+            limiter.onSuccess(rttNanos[i % rttNanos.length]);
+        }
+        return n - admitted;
+    }
+
+    @Test
+    void shedsBeyondTheLimitAndKeepsReserveForPriority() {
+        AdaptiveLimiter l = limiter(4);
+        assertEquals(3, l.normalCap());
+        assertTrue(l.tryAcquire(false));
+        assertTrue(l.tryAcquire(false));
+        assertTrue(l.tryAcquire(false));
+        assertFalse(l.tryAcquire(false));
+        assertTrue(l.tryAcquire(true));
+        assertFalse(l.tryAcquire(true));
+        assertEquals(2, l.getShed());
+        assertEquals(1, l.getShedPriority());
+        assertEquals(4, l.getInFlight());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyStaysNearTheMinimum() {
+        AdaptiveLimiter l = limiter(12);
+        for (int i = 0; i < 20; i++) {
+            window(l, l.getLimit(), 10 * MS);
+        }
+        assertTrue(l.getLimit() > 30, "limit " + l.getLimit());
+        assertEquals(0, l.getInFlight());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyClimbs() {
+        AdaptiveLimiter l = limiter(60);
+        window(l, 60, 10 * MS);
+        int before = l.getLimit();
+        for (int i = 0; i < 20; i++) {
+            window(l, l.getLimit(), 200 * MS);
+        }
+        assertTrue(l.getLimit() < before / 2, before + " -> " + l.getLimit());
+        assertTrue(l.getLimit() >= 2);
+    }
+
+    @Test
+    void steadyMixOfFastAndSlowRequestsIsNotMistakenForOverload() {
+        // 30 concurrent, a quarter at 0.2 ms and the rest at 5 ms, on a healthy node
+        AdaptiveLimiter l = limiter(50);
+        int shed = 0;
+        for (int i = 0; i < 200; i++) {
+            shed += window(l, 30, MS / 5, 5 * MS, 5 * MS, 5 * MS);
+        }
+        assertEquals(0, shed);
+        assertTrue(l.getLimit() >= 50, "limit " + l.getLimit());
+
+        // the same mix slowing down 10x is
+        for (int i = 0; i < 20; i++) {
+            window(l, 30, 2 * MS, 50 * MS, 50 * MS, 50 * MS);
+        }
+        assertTrue(l.getLimit() < 30, "limit " + l.getLimit());
+    }
+
+    @Test
+    void idleLaneDoesNotInflateTheLimit() {
+        AdaptiveLimiter l = limiter(20);
+        for (int i = 0; i < 100; i++) {
+            window(l, 1, 10 * MS);
+        }
+        assertEquals(20, l.getLimit());
+    }
+
+    @Test
+    void ignoredRequestsOnlyFreeTheirSlot() {
+        AdaptiveLimiter l = limiter(50);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(l.tryAcquire(false));
+            l.onIgnore();
+        }
+        assertEquals(50, l.getLimit());
+        assertEquals(0, l.getInFlight());
+        assertEquals(0, l.getLastRttNanos());
+    }
+
+    @Test
+    void minimumLatencyIsRelearnedAfterTheResetInterval() {
+        AdaptiveLimiter l = limiter(20);
+        window(l, 10, 5 * MS);
+        assertEquals(5 * MS, l.getMinRttNanos());
+        now.addAndGet(31_000 * MS);
+        window(l, 10, 40 * MS);
+        assertEquals(40 * MS, l.getMinRttNanos());
+    }
+
+    @Test
+    void onlyDbWriterAndApiReadLanesAreLimited() {
+        assertNull(LoadShedding.limiterFor(Bulkheads.Lane.PROBES));
+        assertNull(LoadShedding.limiterFor(null));
+        assertTrue(LoadShedding.limiterFor(Bulkheads.Lane.API_READS)
+                != LoadShedding.limiterFor(Bulkheads.Lane.DB_WRITERS));
+        assertTrue(LoadShedding.priorityRoutes().isEmpty());
+        // no priority routes, so no reserve: the whole limit is open to every request
+        for (AdaptiveLimiter limiter : LoadShedding.limiters().values()) {
+            assertEquals(limiter.getLimit(), limiter.normalCap());
+        }
+    }
+
+    @Test
+    void priorityRoutesMatchPrefixesAndExactPaths() {
+        List<String> routes = LoadShedding.parseRoutes(" /api/version/* , /api/top,bogus");
+        assertEquals(List.of("/api/version/*", "/api/top"), routes);
+        assertTrue(LoadShedding.matchesAny(routes, "/api/version"));
+        assertTrue(LoadShedding.matchesAny(routes, "/api/version/2"));
+        assertTrue(LoadShedding.matchesAny(routes, "/api/top"));
+        assertFalse(LoadShedding.matchesAny(routes, "/api/versions"));
+        assertFalse(LoadShedding.matchesAny(routes, "/hello"));
+        assertTrue(LoadShedding.parseRoutes("").isEmpty());
+    }
+}
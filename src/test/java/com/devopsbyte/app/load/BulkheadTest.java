@@ -0,0 +1,86 @@
+package com.devopsbyte.app.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        Bulkhead b = new Bulkhead("test", 1, 0, 1000);
+        assertEquals(Bulkhead.Outcome.ADMITTED, b.acquire());
+        assertEquals(Bulkhead.Outcome.REJECTED_QUEUE_FULL, b.acquire());
+        assertEquals(1, b.getActive());
+        assertEquals(1, b.getRejectedQueueFull());
+
+        b.release();
+        assertEquals(0, b.getActive());
+        assertEquals(Bulkhead.Outcome.ADMITTED, b.acquire());
+        b.release();
+    }
+
+    @Test
+    void queuedRequestTimesOutWhileLaneStaysBusy() throws Exception {
+        Bulkhead b = new Bulkhead("test", 1, 1, 20);
+        assertEquals(Bulkhead.Outcome.ADMITTED, b.acquire());
+        assertEquals(Bulkhead.Outcome.REJECTED_TIMEOUT, b.acquire());
+        assertEquals(1, b.getRejectedTimeout());
+        assertEquals(0, b.getQueued());
+        b.release();
+    }
+
+    @Test
+    void queuedRequestIsAdmittedWhenSlotFreesUp() throws Exception {
+        Bulkhead b = new Bulkhead("test", 1, 1, 5000);
+        assertEquals(Bulkhead.Outcome.ADMITTED, b.acquire());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Bulkhead.Outcome> waiter = pool.submit(() -> {
+                started.countDown();
+                return b.acquire();
+            });
+            started.await();
+            while (b.getQueued() == 0 && !waiter.isDone()) {
+                Thread.sleep(1);
+            }
+            b.release();
+            assertEquals(Bulkhead.Outcome.ADMITTED, waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(2, b.getAdmitted());
+            b.release();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void saturatedWriterLaneLeavesProbesUntouched() throws Exception {
+        Bulkhead writers = new Bulkhead("db_writers", 1, 0, 0);
+        Bulkhead probes = new Bulkhead("probes", 1, 0, 0);
+        writers.acquire();
+        assertEquals(Bulkhead.Outcome.REJECTED_QUEUE_FULL, writers.acquire());
+        assertEquals(Bulkhead.Outcome.ADMITTED, probes.acquire());
+        probes.release();
+        writers.release();
+    }
+
+    @Test
+    void routesMapToLanes() {
+        assertEquals(Bulkheads.Lane.PROBES, Bulkheads.laneFor("/health"));
+        assertEquals(Bulkheads.Lane.PROBES, Bulkheads.laneFor("/api/health"));
+        assertEquals(Bulkheads.Lane.DB_WRITERS, Bulkheads.laneFor("/hello"));
+        assertEquals(Bulkheads.Lane.DB_WRITERS, Bulkheads.laneFor("/api/version/3"));
+        assertEquals(Bulkheads.Lane.API_READS, Bulkheads.laneFor("/api/top"));
+        assertNull(Bulkheads.laneFor("/version2"));
+        assertNull(Bulkheads.laneFor("/index.jsp"));
+    }
+}
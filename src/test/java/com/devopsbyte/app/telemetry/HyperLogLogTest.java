@@ -0,0 +1,111 @@
+package com.devopsbyte.app.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void estimateIsWithinThreeStandardErrors() {
+        for (int n : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog hll = new HyperLogLog(12);
+            for (int i = 0; i < n; i++) {
+                hll.offer("10.1." + (i >>> 8) + "." + (i & 0xff) + "-" + i);
+            }
+            double err = Math.abs(hll.estimate() - n) / (double) n;
+            assertTrue(err < 3 * hll.relativeStandardError(), "n=" + n + " estimate=" + hll.estimate());
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheSketch() {
+        HyperLogLog hll = new HyperLogLog(10);
+        assertTrue(hll.offer("curl/8.0"));
+        assertFalse(hll.offer("curl/8.0"));
+        assertEquals(1, hll.estimate());
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog a = new HyperLogLog(12);
+        HyperLogLog b = new HyperLogLog(12);
+        for (int i = 0; i < 30_000; i++) {
+            a.offer("client-" + i);
+            b.offer("client-" + (i + 20_000)); // 10k overlap
+        }
+        a.merge(b);
+        double err = Math.abs(a.estimate() - 50_000) / 50_000.0;
+        assertTrue(err < 3 * a.relativeStandardError(), "estimate=" + a.estimate());
+    }
+
+    @Test
+    void unionFoldsToTheLowestStoredPrecision() {
+        HyperLogLog local = new HyperLogLog(12);
+        HyperLogLog coarse = new HyperLogLog(10);
+        HyperLogLog fine = new HyperLogLog(14);
+        for (int i = 0; i < 20_000; i++) {
+            local.offer("client-" + i);
+            coarse.offer("client-" + (i + 10_000));
+            fine.offer("client-" + (i + 20_000));
+        }
+        HyperLogLog union = HyperLogLog.union(local,
+                List.of(HyperLogLog.fromBytes(coarse.toBytes()), HyperLogLog.fromBytes(fine.toBytes())));
+
+        assertEquals(10, union.getPrecision());
+        double err = Math.abs(union.estimate() - 40_000) / 40_000.0;
+        assertTrue(err < 3 * union.relativeStandardError(), "estimate=" + union.estimate());
+        assertEquals(12, local.getPrecision());
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog hll = new HyperLogLog(8);
+        for (int i = 0; i < 5_000; i++) {
+            hll.offer("ua-" + i);
+        }
+        HyperLogLog copy = HyperLogLog.fromBytes(hll.toBytes());
+        assertEquals(8, copy.getPrecision());
+        assertEquals(hll.estimate(), copy.estimate());
+        assertArrayEquals(hll.toBytes(), copy.toBytes());
+    }
+
+    @Test
+    void foldingMatchesSketchBuiltAtLowerPrecision() {
+        HyperLogLog fine = new HyperLogLog(14);
+        HyperLogLog coarse = new HyperLogLog(10);
+        for (int i = 0; i < 20_000; i++) {
+            fine.offer("node-a-" + i);
+            coarse.offer("node-a-" + i);
+        }
+        assertArrayEquals(coarse.toBytes(), fine.foldTo(10).toBytes());
+
+        HyperLogLog merged = new HyperLogLog(10);
+        merged.merge(fine);
+        assertEquals(coarse.estimate(), merged.estimate());
+    }
+
+    @Test
+    void windowedUnionCoversOnlyRequestedWindows() {
+        AtomicLong now = new AtomicLong(10 * WindowedHll.Granularity.HOUR.getMillis());
+        WindowedHll windowed = new WindowedHll(12, now::get);
+        for (int i = 0; i < 100; i++) {
+            windowed.record("old-" + i);
+        }
+        now.addAndGet(WindowedHll.Granularity.MINUTE.getMillis());
+        for (int i = 0; i < 50; i++) {
+            windowed.record("new-" + i);
+        }
+
+        assertEquals(50, windowed.union(WindowedHll.Granularity.MINUTE, 1).estimate(), 2);
+        assertEquals(150, windowed.union(WindowedHll.Granularity.MINUTE, 2).estimate(), 4);
+        assertEquals(150, windowed.union(WindowedHll.Granularity.HOUR, 1).estimate(), 4);
+
+        // two minute windows and one hour window changed
+        assertEquals(3, windowed.takeDirty().size());
+        assertTrue(windowed.takeDirty().isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+package com.devopsbyte.app.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WindowedTopKTest {
+
+    private final AtomicLong now = new AtomicLong(1_000 * WindowedTopK.SLOT_MILLIS);
+
+    @Test
+    void findsHeavyHittersInSkewedStreamWithinReportedBounds() {
+        WindowedTopK topK = new WindowedTopK(32, now::get);
+        Map<String, Long> truth = new HashMap<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // three heavy agents plus a long tail of unique ones
+            String item = i % 2 == 0 ? "curl/8.0" : i % 5 == 0 ? "ELB-HealthChecker/2.0"
+                    : i % 7 == 0 ? "Mozilla/5.0" : "bot-" + rnd.nextInt(5_000);
+            truth.merge(item, 1L, Long::sum);
+            topK.record(item);
+        }
+
+        TopKSnapshot snap = topK.top(3, 1);
+        assertEquals(50_000, snap.getTotal());
+        List<HeavyHitter> items = snap.getItems();
+        assertEquals("curl/8.0", items.get(0).getItem());
+        assertEquals("ELB-HealthChecker/2.0", items.get(1).getItem());
+        assertEquals("Mozilla/5.0", items.get(2).getItem());
+        for (HeavyHitter h : items) {
+            long actual = truth.get(h.getItem());
+            assertTrue(h.getGuaranteed() <= actual && actual <= h.getCount(), h.getItem());
+            assertTrue(h.getError() <= snap.getTotal() / 32);
+        }
+    }
+
+    @Test
+    void windowOnlyCoversRecentMinutes() {
+        WindowedTopK topK = new WindowedTopK(8, now::get);
+        record(topK, "old", 100);
+        now.addAndGet(10 * WindowedTopK.SLOT_MILLIS);
+        record(topK, "new", 5);
+
+        assertEquals(List.of("new"), names(topK.top(10, 5)));
+        assertEquals(List.of("old", "new"), names(topK.top(10, 15)));
+        assertEquals(105, topK.top(10, 15).getTotal());
+    }
+
+    @Test
+    void slotsAreRecycledAfterAnHour() {
+        WindowedTopK topK = new WindowedTopK(8, now::get);
+        record(topK, "stale", 50);
+        now.addAndGet(WindowedTopK.MAX_WINDOW_MINUTES * WindowedTopK.SLOT_MILLIS);
+        record(topK, "fresh", 1);
+
+        TopKSnapshot snap = topK.top(10, WindowedTopK.MAX_WINDOW_MINUTES);
+        assertEquals(List.of("fresh"), names(snap));
+        assertEquals(1, snap.getTotal());
+    }
+
+    @Test
+    void mergedCountsAcrossMinutesStayUpperBounds() {
+        WindowedTopK topK = new WindowedTopK(2, now::get);
+        // minute 1: "a" is monitored; minute 2: "a" is evicted by a burst of others
+        record(topK, "a", 10);
+        now.addAndGet(WindowedTopK.SLOT_MILLIS);
+        record(topK, "a", 1);
+        record(topK, "b", 6);
+        record(topK, "c", 6);
+
+        HeavyHitter a = topK.top(1, 2).getItems().get(0);
+        assertEquals("a", a.getItem());
+        assertTrue(a.getCount() >= 11);
+        assertTrue(a.getGuaranteed() <= 11);
+    }
+
+    @Test
+    void concurrentRecordsAreAllCountedAcrossStripes() throws Exception {
+        WindowedTopK topK = new WindowedTopK(16, 4, now::get);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        topK.record(i % 2 == 0 ? "curl/8.0" : i % 4 == 1 ? "Mozilla/5.0" : "bot-" + id + "-" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : done) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        TopKSnapshot snap = topK.top(2, 1);
+        assertEquals((long) threads * perThread, snap.getTotal());
+        assertEquals(List.of("curl/8.0", "Mozilla/5.0"), names(snap));
+        HeavyHitter curl = snap.getItems().get(0);
+        long actual = (long) threads * perThread / 2;
+        assertTrue(curl.getGuaranteed() <= actual && actual <= curl.getCount(), curl.getGuaranteed() + ".." + curl.getCount());
+    }
+
+    private void record(WindowedTopK topK, String item, int times) {
+        for (int i = 0; i < times; i++) {
+            topK.record(item);
+        }
+    }
+
+    private List<String> names(TopKSnapshot snap) {
+        return snap.getItems().stream().map(HeavyHitter::getItem).toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.devopsbyte.app.trace;
+
+import com.devopsbyte.app.db.DatabaseManager;
+import com.devopsbyte.app.db.DbHealth;
+import com.devopsbyte.app.db.VersionHitDao;
+import com.devopsbyte.app.db.VersionHitRollupDao;
+import com.devopsbyte.app.db.sim.SimDatabase;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs against the two simulated shards configured for surefire in pom.xml. */
+public class RequestTraceTest {
+
+    @BeforeEach
+    void resetSim() {
+        SimDatabase.resetAll();
+    }
+
+    @AfterEach
+    void endTrace() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void dbPhasesAreAccumulatedIntoServerTiming() {
+        String requestId = UUID.randomUUID().toString();
+        SimDatabase db = SimDatabase.get("shard" + DatabaseManager.shardFor(requestId).getIndex());
+        db.connectLatency(Duration.ofMillis(20)).statementLatency(Duration.ofMillis(10));
+
+        RequestTrace trace = RequestTrace.begin("/api/version/*");
+        RequestTrace.tagRequestId(requestId);
+        assertTrue(new VersionHitDao().logVersionHit(2, "1.0.0", 2, requestId, "curl").isOk());
+
+        assertTrue(trace.getPhaseNanos(Phase.DB_CONNECT) >= Duration.ofMillis(20).toNanos());
+        assertTrue(trace.getPhaseNanos(Phase.DB_STATEMENT) >= Duration.ofMillis(10).toNanos());
+        assertEquals(0, trace.getPhaseNanos(Phase.HEALTH_CHECK));
+
+        String timing = trace.serverTiming();
+        assertTrue(timing.matches("db-connect;dur=\\d+\\.\\d{3}, db-exec;dur=\\d+\\.\\d{3}, "
+                + "handler;dur=\\d+\\.\\d{3}, response;dur=0\\.000, total;dur=\\d+\\.\\d{3}"), timing);
+    }
+
+    @Test
+    void scatterGatherShardWorkCountsTowardsTheRequest() throws Exception {
+        SimDatabase.get("shard0").connectLatency(Duration.ofMillis(20)).statementLatency(Duration.ofMillis(10));
+        SimDatabase.get("shard1").connectLatency(Duration.ofMillis(20)).statementLatency(Duration.ofMillis(10));
+
+        RequestTrace trace = RequestTrace.begin("/api/rollup");
+        Instant to = Instant.now();
+        new VersionHitRollupDao().query(VersionHitRollupDao.HOUR, to.minus(Duration.ofHours(1)), to);
+
+        // both shards, each on its own db-scatter thread
+        assertTrue(trace.getPhaseNanos(Phase.DB_CONNECT) >= Duration.ofMillis(40).toNanos());
+        assertTrue(trace.getPhaseNanos(Phase.DB_STATEMENT) >= Duration.ofMillis(20).toNanos());
+        assertTrue(trace.serverTiming().startsWith("db-connect;dur="), trace.serverTiming());
+    }
+
+    @Test
+    void nothingIsAccumulatedOutsideARequest() {
+        assertNull(RequestTrace.current());
+        new VersionHitDao().logVersionHit(1, "1.0.0", 1, UUID.randomUUID().toString(), null);
+        RequestTrace.tagRequestId("ignored");
+        assertNull(RequestTrace.current());
+    }
+
+    @Test
+    void eventsCarryRequestIdRouteAndOutcome() throws Exception {
+        String requestId = UUID.randomUUID().toString();
+        SimDatabase.get("shard1").down(true);
+
+        Path file = Files.createTempFile("hellowar", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ConnectionAcquireEvent.class);
+            recording.enable(StatementEvent.class);
+            recording.enable(HealthCheckEvent.class);
+            recording.start();
+
+            RequestTrace.begin("/api/health");
+            RequestTrace.tagRequestId(requestId);
+            DbHealth.check();
+            RequestTrace.end();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.devopsbyte.hellowar."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        List<RecordedEvent> health = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.devopsbyte.hellowar.HealthCheck"))
+                .collect(Collectors.toList());
+        assertEquals(2, health.size());
+        for (RecordedEvent e : health) {
+            assertEquals(requestId, e.getString("requestId"));
+            assertEquals("/api/health", e.getString("route"));
+            assertEquals(e.getInt("shard") == 1 ? "unhealthy" : "ok", e.getString("outcome"));
+        }
+        assertTrue(events.stream().anyMatch(e ->
+                e.getEventType().getName().equals("com.devopsbyte.hellowar.ConnectionAcquire")
+                        && e.getInt("shard") == 1 && "error".equals(e.getString("outcome"))));
+    }
+}
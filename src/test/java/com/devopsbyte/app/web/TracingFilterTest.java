@@ -0,0 +1,137 @@
+package com.devopsbyte.app.web;
+
+import com.devopsbyte.app.db.sim.SimDatabase;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs HelloServlet behind TracingFilter in an embedded Tomcat, with SERVER_TIMING_ENABLED=true
+ * and the simulated shards configured for surefire in pom.xml.
+ */
+public class TracingFilterTest {
+
+    private static final String LINE = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcde";
+    private static final int LARGE_LINES = 3 * TracingFilter.MAX_BUFFERED_BYTES / (LINE.length() + 1);
+
+    @TempDir
+    Path baseDir;
+
+    private Tomcat tomcat;
+    private int port;
+
+    @BeforeEach
+    void startTomcat() throws Exception {
+        SimDatabase.resetAll();
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+
+        Context ctx = tomcat.addContext("", baseDir.toString());
+        FilterDef def = new FilterDef();
+        def.setFilterName("TracingFilter");
+        def.setFilterClass(TracingFilter.class.getName());
+        ctx.addFilterDef(def);
+        FilterMap map = new FilterMap();
+        map.setFilterName("TracingFilter");
+        map.addURLPattern("/*");
+        ctx.addFilterMap(map);
+        Tomcat.addServlet(ctx, "hello", new HelloServlet());
+        ctx.addServletMappingDecoded("/hello", "hello");
+        Tomcat.addServlet(ctx, "large", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("text/plain;charset=UTF-8");
+                PrintWriter w = resp.getWriter();
+                for (int i = 0; i < LARGE_LINES; i++) {
+                    w.println(LINE);
+                }
+            }
+        });
+        ctx.addServletMappingDecoded("/large", "large");
+
+        tomcat.start();
+        port = tomcat.getConnector().getLocalPort();
+    }
+
+    @AfterEach
+    void stopTomcat() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    void serverTimingCoversDbWorkDoneAfterTheBodyWasWritten() throws Exception {
+        // HelloServlet writes the greeting first and logs to request_log afterwards
+        SimDatabase.get("shard0").connectLatency(Duration.ofMillis(5)).statementLatency(Duration.ofMillis(5));
+        SimDatabase.get("shard1").connectLatency(Duration.ofMillis(5)).statementLatency(Duration.ofMillis(5));
+
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + port + "/hello?name=Phoenix")
+                .openConnection();
+        try {
+            assertEquals(200, conn.getResponseCode());
+            String timing = conn.getHeaderField("Server-Timing");
+            assertNotNull(timing);
+            assertTrue(timing.matches("db-connect;dur=\\d+\\.\\d{3}, db-exec;dur=\\d+\\.\\d{3}, "
+                    + "handler;dur=\\d+\\.\\d{3}, response;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), timing);
+            assertTrue(metric(timing, "response") >= 10.0, timing);
+            assertTrue(metric(timing, "total") >= metric(timing, "db-connect") + metric(timing, "db-exec"), timing);
+            try (InputStream in = conn.getInputStream()) {
+                assertEquals("Hello, Phoenix!\n", new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                        .replace("\r\n", "\n"));
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    @Test
+    void bodyLargerThanTheBufferIsStreamedWithTimingSoFar() throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + port + "/large").openConnection();
+        try {
+            assertEquals(200, conn.getResponseCode());
+            String timing = conn.getHeaderField("Server-Timing");
+            assertNotNull(timing);
+            assertTrue(timing.matches("handler;dur=\\d+\\.\\d{3}, response;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"),
+                    timing);
+            // streamed, not sent with the Content-Length of a fully buffered body
+            assertNull(conn.getHeaderField("Content-Length"));
+            try (InputStream in = conn.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+                assertEquals(LARGE_LINES * (LINE.length() + 1), body.length());
+                assertTrue(body.startsWith(LINE + "\n") && body.endsWith(LINE + "\n"));
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private static double metric(String timing, String name) {
+        for (String part : timing.split(", ")) {
+            if (part.startsWith(name + ";dur=")) {
+                return Double.parseDouble(part.substring(name.length() + 5));
+            }
+        }
+        return -1;
+    }
+}